@@ -0,0 +1,201 @@
+import java.util.function.IntSupplier;
+
+/**
+ * Computer player for one colour
+ * Searches a copy of the game state on a background thread so the world keeps animating
+ * (and the player's GameTimer keeps running) while it thinks. GridWorld starts it when the
+ * computer's turn begins and polls for the move in act().
+ *
+ * The search runs on several threads (see ParallelSearch), as many as GameSettings asks for
+ * (half the machine's cores by default).
+ * The time spent per move is decided by a TimeManager from what is left on the player's
+ * GameTimer, so the computer never loses on time while it still has moves to make.
+ *
+ * Positions found in the OpeningBook are played straight from the book without searching, and
+ * endgames the Tablebase covers are played perfectly from the tables.
+ *
+ * With pondering on, the computer keeps searching while the opponent thinks: it plays the
+ * reply it expects (the one its own search found) and searches the position after it. If the
+ * opponent does play that move (a ponder hit) the search carries on with everything it has
+ * found so far and is often done at once, otherwise it is stopped and a fresh search started.
+ *
+ * @author Saiful Shaik
+ * @version 2/13/2026
+ */
+public class AIPlayer
+{
+    // the search never goes deeper than this, even with time to spare
+    private static final int MAX_DEPTH = 32;
+
+    // memory for the transposition table
+    private static final int TABLE_MEGABYTES = 64;
+
+    // shared by every player, opened the first time one is created
+    private static OpeningBook book;
+    private static Tablebase tablebase;
+
+    private final int color;
+    private final ParallelSearch search;
+
+    private Thread thread;
+    private volatile boolean moveReady;
+    private volatile int move;
+
+    // while pondering: the position searched, and its limits to hand over on a ponder hit
+    private volatile boolean pondering;
+    private GameState ponderPosition;
+    private TimeManager ponderTime;
+
+    /**
+     * @param color GameState.WHITE or GameState.BLACK
+     * @param threads number of threads to search with
+     */
+    public AIPlayer(int color, int threads) {
+        this.color = color;
+        this.search = new ParallelSearch(threads, TABLE_MEGABYTES);
+        synchronized (AIPlayer.class) {
+            if (book == null) book = new OpeningBook(OpeningBook.BOOK_FILE);
+            if (tablebase == null) tablebase = new Tablebase(Tablebase.DIRECTORY);
+        }
+        search.setTablebase(tablebase);
+    }
+
+    /**
+     * @return int the colour this player moves for
+     */
+    public int getColor() {
+        return color;
+    }
+
+    /**
+     * check if the search for a move is still running
+     */
+    public boolean isThinking() {
+        return thread != null && !moveReady && !pondering;
+    }
+
+    /**
+     * check if the computer is searching on the opponent's time
+     */
+    public boolean isPondering() {
+        return thread != null && pondering;
+    }
+
+    /**
+     * Start searching for a move in the background
+     *
+     * @param state the current position (copied, the world keeps its own)
+     * @param millisLeft time left on this player's GameTimer
+     */
+    public void startThinking(GameState state, long millisLeft) {
+        if (isPondering()) {
+            if (state.getHash() == ponderPosition.getHash()) {
+                // ponder hit, the search keeps going under the clock's limits
+                ponderTime.ponderHit(millisLeft, new GameState(state));
+                search.ponderHit(ponderTime);
+                pondering = false;
+                return;
+            }
+            stopPondering();
+        }
+
+        GameState position = new GameState(state);
+        TimeManager time = new TimeManager(millisLeft, position);
+        start(() -> {
+            int known = book.probe(position);
+            if (known == Move.NONE) known = tablebase.bestMove(position);
+            return known != Move.NONE ? known : search.search(position, MAX_DEPTH, time);
+        });
+    }
+
+    /**
+     * Start searching on the opponent's time, after the computer's own move has been played
+     * Does nothing if there is no expected reply. If the position after it is in the book or
+     * the tablebases, the background thread only looks the move up there (a tablebase can
+     * have to read from disk, which must not hold up the act thread) and that is the move
+     * played on a ponder hit.
+     *
+     * @param state the current position, with the opponent to move
+     */
+    public void startPondering(GameState state) {
+        if (state.isGameOver() || state.getSideToMove() == color) return;
+        int reply = search.tableMove(state);
+        if (reply == Move.NONE) return;
+
+        GameState position = new GameState(state);
+        position.makeMove(reply);
+        if (position.isGameOver()) return;
+
+        ponderPosition = position;
+        ponderTime = TimeManager.forPondering();
+        TimeManager time = ponderTime;
+        pondering = true;
+        start(() -> {
+            // ponderPosition is read on the act thread, so the lookups get their own copy
+            GameState searched = new GameState(position);
+            int known = book.probe(searched);
+            if (known == Move.NONE) known = tablebase.bestMove(searched);
+            return known != Move.NONE ? known : search.search(searched, MAX_DEPTH, time);
+        });
+    }
+
+    /**
+     * run a search on the background thread, its result becomes the move
+     */
+    private void start(IntSupplier think) {
+        moveReady = false;
+        thread = new Thread(() -> {
+            move = think.getAsInt();
+            moveReady = true;
+        }, "ClashMate AI");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * stop a ponder search that missed, waiting for it so its move cannot turn up later
+     */
+    private void stopPondering() {
+        Thread ponder = thread;
+        try {
+            // stop again until it ends, in case it had not started searching the first time
+            while (ponder.isAlive()) {
+                search.stop();
+                ponder.join(10);
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+        pondering = false;
+    }
+
+    /**
+     * Take the move the search found, once it has finished
+     *
+     * @return int the packed move (see Move), or Move.NONE if it is not ready yet
+     */
+    public int takeMove() {
+        if (thread == null || !moveReady || pondering) return Move.NONE;
+        thread = null;
+        return move;
+    }
+
+    /**
+     * stop any search in progress, throwing its move away
+     */
+    public void stop() {
+        search.stop();
+        thread = null;
+        pondering = false;
+    }
+
+    /**
+     * stop searching and release the helper threads, once the game is over
+     */
+    public void shutdown() {
+        stop();
+        search.shutdown();
+    }
+}
@@ -53,7 +53,7 @@ public class AbilityCostDisplay extends Actor
         }
         
         // Load and resize the elixir icon
-        GreenfootImage elixirIcon = new GreenfootImage("Elixir.png"); // Change filename if different
+        GreenfootImage elixirIcon = new GreenfootImage(Atlas.get("Elixir.png"));
         elixirIcon.scale(90, 60); // Make it bigger to fit number inside
         
         // Draw the cost number on top of the icon
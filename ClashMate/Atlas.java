@@ -0,0 +1,80 @@
+import greenfoot.*;  // (GreenfootImage)
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sprites sliced from the texture atlas AtlasPacker writes
+ * The first time a sprite is asked for, the sheet (images/atlas.png) is decoded once and
+ * every sprite in the manifest (images/atlas.txt) is cut out of it, so the rest of the game
+ * never opens another image file. Sprites are asked for by their original file name, and
+ * one that is not in the atlas (or a missing atlas) falls back to loading the file itself.
+ *
+ * The sprites are shared, so nothing may draw on or scale them; copy one first with
+ * new GreenfootImage(Atlas.get(name)).
+ *
+ * @author Saiful Shaik
+ * @version 2/19/2026
+ */
+public class Atlas
+{
+    public static final String SHEET_FILE = "atlas.png";
+    public static final String MANIFEST_FILE = "atlas.txt";
+
+    private static final Map<String, GreenfootImage> sprites = new HashMap<>();
+    private static boolean loaded;
+
+    private Atlas() {
+    }
+
+    /**
+     * @param name file name of the sprite in the images folder, e.g. "WKnight.png"
+     * @return GreenfootImage the shared sprite, which must not be changed
+     */
+    public static GreenfootImage get(String name) {
+        if (!loaded) load();
+        GreenfootImage sprite = sprites.get(name);
+        if (sprite == null) {
+            sprite = new GreenfootImage(name);
+            sprites.put(name, sprite);
+        }
+        return sprite;
+    }
+
+    /**
+     * Decode the sheet and cut out every sprite now, e.g. while the first world is set up
+     */
+    public static void load() {
+        if (loaded) return;
+        loaded = true;
+
+        InputStream in = Atlas.class.getClassLoader().getResourceAsStream("images/" + MANIFEST_FILE);
+        if (in == null) return;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in))) {
+            GreenfootImage sheet = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.trim().split("\\s+");
+                if (fields[0].isEmpty() || fields[0].startsWith("#")) continue;
+                if (fields[0].equals("sheet")) {
+                    sheet = new GreenfootImage(fields[1]);
+                    continue;
+                }
+                if (sheet == null || fields.length != 5) continue;
+
+                int x = Integer.parseInt(fields[1]);
+                int y = Integer.parseInt(fields[2]);
+                GreenfootImage sprite = new GreenfootImage(Integer.parseInt(fields[3]), Integer.parseInt(fields[4]));
+                sprite.drawImage(sheet, -x, -y);
+                sprites.put(fields[0], sprite);
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            // whatever was cut out is kept, the rest loads from its own file
+            System.err.println("Error loading the sprite atlas: " + e.getMessage());
+        }
+    }
+}
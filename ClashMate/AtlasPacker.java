@@ -0,0 +1,104 @@
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.imageio.ImageIO;
+
+/**
+ * Packs the game's sprites into one texture atlas image plus a manifest (see Atlas)
+ * Sprites are placed on shelves, tallest first, left to right across a sheet of fixed width,
+ * with a gap between them. They keep their original size, so nothing looks different in game.
+ *
+ * The manifest is a text file, one sprite per line after the sheet's own line:
+ *     sheet <image file> <width> <height>
+ *     <sprite file> <x> <y> <width> <height>
+ * Lines starting with # are comments.
+ *
+ * Run with (from the scenario folder, whenever an image in SPRITES changes):
+ *     java AtlasPacker [images folder]
+ *
+ * @author Saiful Shaik
+ * @version 2/19/2026
+ */
+public class AtlasPacker
+{
+    // every image the game loads, by file name in the images folder
+    public static final String[] SPRITES = {
+        "WDarkPrince.png", "WKnight.png", "WMusketeer.png", "WRoyalGiant.png",
+        "WSkeleton.png", "WWitch.png", "WRoyalRecruits.png",
+        "BDarkPrince.png", "BKnight.png", "BMusketeer.png", "BRoyalGiant.png",
+        "BSkeleton.png", "BWitch.png", "BRoyalRecruits.png",
+        "Elixir.png", "bomb.png", "Background.png"
+    };
+
+    private static final int SHEET_WIDTH = 1024;
+    private static final int GAP = 2;
+
+    public static void main(String[] args) throws IOException {
+        File folder = new File(args.length > 0 ? args[0] : "images");
+        List<String> names = new ArrayList<>();
+        List<BufferedImage> images = new ArrayList<>();
+        long sourceBytes = 0;
+        for (String name : SPRITES) {
+            File file = new File(folder, name);
+            BufferedImage image = ImageIO.read(file);
+            if (image == null) throw new IOException("cannot read " + file);
+            names.add(name);
+            images.add(image);
+            sourceBytes += file.length();
+        }
+
+        // tallest first, so each shelf wastes little height
+        Integer[] order = new Integer[images.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> images.get(b).getHeight() - images.get(a).getHeight());
+
+        int[][] places = new int[images.size()][];
+        int x = 0;
+        int y = 0;
+        int shelfHeight = 0;
+        for (int i : order) {
+            BufferedImage image = images.get(i);
+            if (image.getWidth() > SHEET_WIDTH) throw new IOException(names.get(i) + " is wider than the sheet");
+            if (x + image.getWidth() > SHEET_WIDTH) {
+                x = 0;
+                y += shelfHeight + GAP;
+                shelfHeight = 0;
+            }
+            places[i] = new int[] { x, y };
+            x += image.getWidth() + GAP;
+            shelfHeight = Math.max(shelfHeight, image.getHeight());
+        }
+        int sheetHeight = y + shelfHeight;
+
+        BufferedImage sheet = new BufferedImage(SHEET_WIDTH, sheetHeight, BufferedImage.TYPE_INT_ARGB);
+        for (int i = 0; i < images.size(); i++) {
+            // pixels are copied, drawing would blend the semi-transparent edges and change them
+            BufferedImage image = images.get(i);
+            int width = image.getWidth();
+            int height = image.getHeight();
+            int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+            sheet.setRGB(places[i][0], places[i][1], width, height, pixels, 0, width);
+        }
+
+        File sheetFile = new File(folder, Atlas.SHEET_FILE);
+        ImageIO.write(sheet, "png", sheetFile);
+        try (PrintWriter manifest = new PrintWriter(new File(folder, Atlas.MANIFEST_FILE))) {
+            manifest.println("# sprite atlas written by AtlasPacker, do not edit");
+            manifest.println("sheet " + Atlas.SHEET_FILE + " " + SHEET_WIDTH + " " + sheetHeight);
+            for (int i = 0; i < images.size(); i++) {
+                BufferedImage image = images.get(i);
+                manifest.println(names.get(i) + " " + places[i][0] + " " + places[i][1]
+                    + " " + image.getWidth() + " " + image.getHeight());
+            }
+        }
+
+        System.out.println(images.size() + " sprites (" + sourceBytes / 1024 + " KB) packed into "
+            + SHEET_WIDTH + "x" + sheetHeight + " " + sheetFile + " (" + sheetFile.length() / 1024 + " KB)");
+    }
+}
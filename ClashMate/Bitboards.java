@@ -0,0 +1,143 @@
+/**
+ * Precomputed 64-bit board masks used by GameState
+ * Bit n of a mask is square n (row * 8 + col), so row 0 (black's back row) is the low byte
+ *
+ * Leaper moves, ability areas and the slider rays are all built once when the class loads,
+ * so move checks and abilities become a few AND/OR operations instead of walking blocks
+ *
+ * @author Saiful Shaik
+ * @version 2/4/2026
+ */
+public final class Bitboards
+{
+    // ray directions, the first four step to higher squares and the last four to lower ones
+    public static final int EAST = 0;
+    public static final int SOUTH = 1;
+    public static final int SOUTH_EAST = 2;
+    public static final int SOUTH_WEST = 3;
+    public static final int WEST = 4;
+    public static final int NORTH = 5;
+    public static final int NORTH_WEST = 6;
+    public static final int NORTH_EAST = 7;
+
+    private static final int[] ROW_STEP = { 0, 1, 1, 1, 0, -1, -1, -1 };
+    private static final int[] COL_STEP = { 1, 0, 1, -1, -1, 0, -1, 1 };
+
+    // squares reached by a knight, royal giant step, or skeleton diagonal capture
+    public static final long[] KNIGHT = new long[64];
+    public static final long[] KING = new long[64];
+    public static final long[] DIAGONAL_NEIGHBORS = new long[64];
+
+    // squares a recruit captures onto, indexed by colour then square
+    public static final long[][] RECRUIT_CAPTURES = new long[2][64];
+
+    // orthogonal neighbours (dark prince splash, witch summon) and the 3x3 bomb blast
+    public static final long[] ORTHOGONAL_NEIGHBORS = new long[64];
+    public static final long[] BLAST = new long[64];
+
+    // the three squares in front of a knight, indexed by colour then square
+    public static final long[][] SLASH = new long[2][64];
+
+    // every square along a direction from a square (not including it)
+    public static final long[][] RAYS = new long[8][64];
+
+    // squares strictly between two squares on a shared line, 0 if they are not aligned
+    public static final long[][] BETWEEN = new long[64][64];
+
+    static {
+        for (int sq = 0; sq < 64; sq++) {
+            int row = sq / 8;
+            int col = sq % 8;
+
+            for (int dr = -2; dr <= 2; dr++) {
+                for (int dc = -2; dc <= 2; dc++) {
+                    int adr = Math.abs(dr);
+                    int adc = Math.abs(dc);
+                    long bit = bit(row + dr, col + dc);
+                    if (adr + adc == 3 && adr > 0 && adc > 0) KNIGHT[sq] |= bit;
+                    if (adr <= 1 && adc <= 1 && adr + adc > 0) {
+                        KING[sq] |= bit;
+                        BLAST[sq] |= bit;
+                        if (adr == adc) DIAGONAL_NEIGHBORS[sq] |= bit;
+                        else ORTHOGONAL_NEIGHBORS[sq] |= bit;
+                    }
+                }
+            }
+            BLAST[sq] |= 1L << sq;
+
+            for (int color = 0; color < 2; color++) {
+                int ahead = row + (color == 0 ? -1 : 1);
+                RECRUIT_CAPTURES[color][sq] = bit(ahead, col - 1) | bit(ahead, col + 1);
+                SLASH[color][sq] = RECRUIT_CAPTURES[color][sq] | bit(ahead, col);
+            }
+
+            for (int dir = 0; dir < 8; dir++) {
+                int r = row + ROW_STEP[dir];
+                int c = col + COL_STEP[dir];
+                while (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                    RAYS[dir][sq] |= 1L << (r * 8 + c);
+                    r += ROW_STEP[dir];
+                    c += COL_STEP[dir];
+                }
+            }
+        }
+
+        for (int from = 0; from < 64; from++) {
+            for (int dir = 0; dir < 8; dir++) {
+                long ray = RAYS[dir][from];
+                for (long m = ray; m != 0; m &= m - 1) {
+                    int to = Long.numberOfTrailingZeros(m);
+                    BETWEEN[from][to] = ray & ~RAYS[dir][to] & ~(1L << to);
+                }
+            }
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    /**
+     * mask with a single square set, 0 if the row or column is off the board
+     */
+    public static long bit(int row, int col) {
+        if (row < 0 || row >= 8 || col < 0 || col >= 8) return 0L;
+        return 1L << (row * 8 + col);
+    }
+
+    /**
+     * squares a slider reaches along one ray, stopping on (and including) the first blocker
+     */
+    public static long rayAttacks(int dir, int sq, long occupied) {
+        long ray = RAYS[dir][sq];
+        long blockers = ray & occupied;
+        if (blockers == 0) return ray;
+        int first = dir < 4 ? Long.numberOfTrailingZeros(blockers) : 63 - Long.numberOfLeadingZeros(blockers);
+        return ray & ~RAYS[dir][first];
+    }
+
+    /**
+     * dark prince (rook) reach
+     */
+    public static long orthogonalAttacks(int sq, long occupied) {
+        return rayAttacks(EAST, sq, occupied) | rayAttacks(SOUTH, sq, occupied)
+            | rayAttacks(WEST, sq, occupied) | rayAttacks(NORTH, sq, occupied);
+    }
+
+    /**
+     * musketeer (bishop) reach
+     */
+    public static long diagonalAttacks(int sq, long occupied) {
+        return rayAttacks(SOUTH_EAST, sq, occupied) | rayAttacks(SOUTH_WEST, sq, occupied)
+            | rayAttacks(NORTH_WEST, sq, occupied) | rayAttacks(NORTH_EAST, sq, occupied);
+    }
+
+    /**
+     * first occupied square straight ahead of a piece of the given colour
+     * @return int the square, or -1 if the line is clear
+     */
+    public static int firstAhead(int color, int sq, long occupied) {
+        long blockers = RAYS[color == 0 ? NORTH : SOUTH][sq] & occupied;
+        if (blockers == 0) return -1;
+        return color == 0 ? 63 - Long.numberOfLeadingZeros(blockers) : Long.numberOfTrailingZeros(blockers);
+    }
+}
@@ -1,13 +1,26 @@
 import greenfoot.*;
+import java.util.Arrays;
 
 /**
  * Block code from class, with new features
  * 
+ * The cell images are shared: one for each square shade, and one for each shade and highlight
+ * colour, drawn the first time they are needed. Highlighting and clearing a block only swaps
+ * which of them it shows, so nothing is allocated per click.
+ * 
  * @author Jordan Cohen (edited by Joe Zhuo)
  * @version
  */
 public class Block extends Actor
 {
+    // highlights are drawn over the cell at this alpha
+    private static final int HIGHLIGHT_ALPHA = 100;
+    
+    // plain cells by shade (0 light, 1 dark), and the highlight colours with their cells by shade
+    private static final GreenfootImage[] cells = new GreenfootImage[2];
+    private static Color[] overlayColors = { Color.GREEN, Color.RED, Color.ORANGE };
+    private static GreenfootImage[][] overlays = new GreenfootImage[overlayColors.length][2];
+    
     private int xPos, yPos;
     private int worldX, worldY;
 
@@ -30,24 +43,48 @@ public class Block extends Actor
 
     private void drawCell()
     {
-        GreenfootImage image = new GreenfootImage(GridWorld.SIZE, GridWorld.SIZE);
-
-        // Chessboard colour logic
-        image.setColor((xPos + yPos) % 2 == 0 ? Color.WHITE : Color.BLACK);
-        image.fill();
-
-        // Optional: show coordinates
-        image.setColor((xPos + yPos) % 2 == 0 ? Color.WHITE : Color.BLACK);
-        image.drawString(xPos + ", " + yPos, 4, image.getHeight() - 6);
+        int shade = (xPos + yPos) % 2;
+        if (cells[shade] == null) {
+            GreenfootImage image = new GreenfootImage(GridWorld.SIZE, GridWorld.SIZE);
 
-        setImage(image);
+            // Chessboard colour logic
+            image.setColor(shade == 0 ? Color.WHITE : Color.BLACK);
+            image.fill();
+            cells[shade] = image;
+        }
+        setImage(cells[shade]);
     }
     
     public void highlight(Color color) {
-        GreenfootImage highlightImg = new GreenfootImage(originalImage);
-        highlightImg.setColor(new Color(color.getRed(), color.getGreen(), color.getBlue(), 100)); // semi-transparent
-        highlightImg.fillRect(0, 0, getImage().getWidth(), getImage().getHeight());
-        setImage(highlightImg);
+        setImage(overlay(color, (xPos + yPos) % 2));
+    }
+    
+    /**
+     * the cell of a shade with a semi-transparent colour over it, drawn on first use
+     */
+    private static GreenfootImage overlay(Color color, int shade) {
+        int index = 0;
+        while (index < overlayColors.length && !sameColor(overlayColors[index], color)) index++;
+        
+        // a colour not seen before gets its own pair of cells
+        if (index == overlayColors.length) {
+            overlayColors = Arrays.copyOf(overlayColors, index + 1);
+            overlayColors[index] = color;
+            overlays = Arrays.copyOf(overlays, index + 1);
+            overlays[index] = new GreenfootImage[2];
+        }
+        
+        if (overlays[index][shade] == null) {
+            GreenfootImage image = new GreenfootImage(cells[shade]);
+            image.setColor(new Color(color.getRed(), color.getGreen(), color.getBlue(), HIGHLIGHT_ALPHA));
+            image.fillRect(0, 0, image.getWidth(), image.getHeight());
+            overlays[index][shade] = image;
+        }
+        return overlays[index][shade];
+    }
+    
+    private static boolean sameColor(Color a, Color b) {
+        return a.getRed() == b.getRed() && a.getGreen() == b.getGreen() && a.getBlue() == b.getBlue();
     }
     
     /**
@@ -89,7 +126,7 @@ public class Block extends Actor
     }
     
     public void clearHighlight() {
-        setImage(new GreenfootImage(originalImage));
+        setImage(originalImage);
     }
 
     public int getBoardX() {
@@ -99,4 +136,12 @@ public class Block extends Actor
     public int getBoardY() {
         return yPos;
     }
+    
+    /**
+     * get the game state square index of this block
+     * @return the square (row * 8 + column)
+     */
+    public int getSquare() {
+        return GameState.square(xPos, yPos);
+    }
 }
@@ -23,6 +23,7 @@ public class Bomb extends Actor
         this.location = location;
         this.isWhite = isWhite;
         this.turnCount = 4;
+        setImage(Atlas.get("bomb.png"));
         
         // add label to show turns remaining
         turnsLabel = new Label(turnCount, 36);
@@ -59,24 +60,11 @@ public class Bomb extends Actor
     }
     
     /**
-     * explode method to remove pieces in adjacent blocks
+     * explode method, the pieces caught in the blast are removed by the game state
+     * when the turn ends, so this only plays the explosion and cleans up
      */
     private void explode() {
         GridWorld gw = (GridWorld) getWorld();
-
-        int cx = location.getBoardX();
-        int cy = location.getBoardY();
-
-        for (int dx = -1; dx <= 1; dx++) {
-            for (int dy = -1; dy <= 1; dy++) {
-                Block b = gw.getBlock(cx + dx, cy + dy);
-                if (b != null && b.currentPiece() != null) {
-                    if (b.currentPiece().checkIsWhite() != isWhite) {
-                        b.removePiece(true);
-                    }
-                }
-            }
-        }
         
         SoundManager.getInstance().play(SoundManager.BOMB);
         
@@ -115,10 +115,7 @@ public class CapturedPiecesPopup extends Actor
                 
                 // Draw piece image
                 try {
-                    String imageName = getPieceImageName(type, capturedAreWhite);
-                    GreenfootImage pieceImg = new GreenfootImage(imageName);
-                    pieceImg.scale(pieceSize, pieceSize);
-                    img.drawImage(pieceImg, x, y);
+                    img.drawImage(SpriteCache.get(type, capturedAreWhite, pieceSize), x, y);
                 } catch (Exception e) {
                     // Fallback: draw colored rectangle
                     img.setColor(capturedAreWhite ? Color.WHITE : Color.DARK_GRAY);
@@ -140,24 +137,6 @@ public class CapturedPiecesPopup extends Actor
         }
     }
     
-    /**
-     * Get the image file name for a piece type
-     */
-    private String getPieceImageName(Piece.PieceType type, boolean isWhite)
-    {
-        String prefix = isWhite ? "W" : "B";
-        switch (type) {
-            case DARK_PRINCE: return "images/" + prefix + "DarkPrince.png";
-            case KNIGHT: return "images/" + prefix + "Knight.png";
-            case MUSKETEER: return "images/" + prefix + "Musketeer.png";
-            case ROYAL_GIANT: return "images/" + prefix + "RoyalGiant.png";
-            case SKELETON: return "images/" + prefix + "Skeleton.png";
-            case WITCH: return "images/" + prefix + "Witch.png";
-            case ROYAL_RECRUITS: return "images/" + prefix + "RoyalRecruits.png";
-            default: return "images/" + prefix + "Skeleton.png";
-        }
-    }
-    
     /**
      * Act - popup closing is now handled by EndGameWorld
      */
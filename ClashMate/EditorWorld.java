@@ -13,6 +13,8 @@ public class EditorWorld extends MenuWorld
     // Game settings
     private int timeMinutes = 10;
     private int elixirMultiplier = 1;
+    private boolean vsComputer = false;
+    private boolean isWhiteSide = true;
     
     // UI Elements
     private Label titleLabel;
@@ -20,6 +22,7 @@ public class EditorWorld extends MenuWorld
     private Label timeValueLabel;
     private Label elixirLabel;
     private Label elixirValueLabel;
+    private Label opponentLabel;
     
     // Buttons
     private Button timeUpButton;
@@ -27,6 +30,8 @@ public class EditorWorld extends MenuWorld
     private Button elixir1xButton;
     private Button elixir2xButton;
     private Button elixir3xButton;
+    private Button opponentButton;
+    private Button sideButton;
     private Button backButton;
     private Button startButton;
     
@@ -52,6 +57,8 @@ public class EditorWorld extends MenuWorld
         GameSettings settings = GameSettings.getInstance();
         timeMinutes = settings.getTimeMinutes();
         elixirMultiplier = settings.getElixirMultiplier();
+        vsComputer = settings.isVsComputer();
+        isWhiteSide = settings.isWhiteSide();
     }
     
     /**
@@ -95,54 +102,70 @@ public class EditorWorld extends MenuWorld
         addDecorativeLine(300, 90 + yOffset, 300);
         
         // === TIME SECTION (centered vertically) ===
-        createSectionPanel(300, 220, 400, 80, "TIME");
+        createSectionPanel(300, 200, 400, 80, "TIME");
         
         timeLabel = new Label("Game Time:", 24);
         timeLabel.setFillColor(Color.WHITE);
         timeLabel.setLineColor(new Color(100, 100, 100));
-        addObject(timeLabel, 180, 220);
+        addObject(timeLabel, 180, 200);
         
         timeValueLabel = new Label(timeMinutes + " min", 28);
         timeValueLabel.setFillColor(new Color(100, 200, 255));
         timeValueLabel.setLineColor(new Color(50, 100, 150));
-        addObject(timeValueLabel, 300, 220);
+        addObject(timeValueLabel, 300, 200);
         
         timeDownButton = new Button("-", 50, 40, 
             new Color(180, 80, 80), new Color(220, 100, 100), Color.WHITE, 28);
-        addObject(timeDownButton, 390, 220);
+        addObject(timeDownButton, 390, 200);
         
         timeUpButton = new Button("+", 50, 40, 
             new Color(80, 180, 80), new Color(100, 220, 100), Color.WHITE, 28);
-        addObject(timeUpButton, 450, 220);
+        addObject(timeUpButton, 450, 200);
         
         // === ELIXIR MULTIPLIER SECTION (centered vertically) ===
-        createSectionPanel(300, 350, 400, 120, "ELIXIR");
+        createSectionPanel(300, 320, 400, 120, "ELIXIR");
         
         elixirLabel = new Label("Elixir Multiplier: ", 24);
         elixirLabel.setFillColor(Color.WHITE);
         elixirLabel.setLineColor(new Color(100, 100, 100));
-        addObject(elixirLabel, 280, 315);
+        addObject(elixirLabel, 280, 285);
         
         elixirValueLabel = new Label(elixirMultiplier + "x", 28);
         elixirValueLabel.setFillColor(new Color(200, 100, 255));
         elixirValueLabel.setLineColor(new Color(100, 50, 150));
-        addObject(elixirValueLabel, 380, 315);
+        addObject(elixirValueLabel, 380, 285);
         
         // Three mutually exclusive multiplier buttons
         elixir1xButton = new Button("1x", 70, 40, 
             getMultiplierButtonColor(1, false), getMultiplierButtonColor(1, true), Color.WHITE, 22);
-        addObject(elixir1xButton, 220, 375);
+        addObject(elixir1xButton, 220, 345);
         
         elixir2xButton = new Button("2x", 70, 40, 
             getMultiplierButtonColor(2, false), getMultiplierButtonColor(2, true), Color.WHITE, 22);
-        addObject(elixir2xButton, 300, 375);
+        addObject(elixir2xButton, 300, 345);
         
         elixir3xButton = new Button("3x", 70, 40, 
             getMultiplierButtonColor(3, false), getMultiplierButtonColor(3, true), Color.WHITE, 22);
-        addObject(elixir3xButton, 380, 375);
+        addObject(elixir3xButton, 380, 345);
         
         updateElixirButtonHighlights();
         
+        // === OPPONENT SECTION ===
+        createSectionPanel(300, 425, 400, 60, "OPPONENT");
+        
+        opponentLabel = new Label("Opponent:", 24);
+        opponentLabel.setFillColor(Color.WHITE);
+        opponentLabel.setLineColor(new Color(100, 100, 100));
+        addObject(opponentLabel, 165, 425);
+        
+        opponentButton = new Button(getOpponentText(), 120, 40, 
+            new Color(70, 70, 120), new Color(100, 100, 170), Color.WHITE, 20);
+        addObject(opponentButton, 290, 425);
+        
+        sideButton = new Button(getSideText(), 120, 40, 
+            new Color(70, 70, 120), new Color(100, 100, 170), Color.WHITE, 20);
+        addObject(sideButton, 425, 425);
+        
         // === BACK AND START BUTTONS (at bottom) ===
         backButton = new Button("← BACK", 140, 60,
             new Color(70, 70, 90), new Color(100, 100, 130), Color.WHITE, 24);
@@ -261,6 +284,18 @@ public class EditorWorld extends MenuWorld
             updateElixirDisplay();
             saveSettings();
         }
+        else if (opponentButton.wasClicked())
+        {
+            vsComputer = !vsComputer;
+            opponentButton.setText(getOpponentText());
+            saveSettings();
+        }
+        else if (sideButton.wasClicked())
+        {
+            isWhiteSide = !isWhiteSide;
+            sideButton.setText(getSideText());
+            saveSettings();
+        }
         else if (backButton.wasClicked())
         {
             goToLandingPage();
@@ -288,6 +323,22 @@ public class EditorWorld extends MenuWorld
         updateElixirButtonHighlights();
     }
     
+    /**
+     * Text for the opponent toggle
+     */
+    private String getOpponentText()
+    {
+        return vsComputer ? "Computer" : "Friend";
+    }
+    
+    /**
+     * Text for the side toggle (the computer plays the other side)
+     */
+    private String getSideText()
+    {
+        return isWhiteSide ? "Play White" : "Play Black";
+    }
+    
     /**
      * Get the color for a multiplier button based on selection state
      */
@@ -354,10 +405,14 @@ public class EditorWorld extends MenuWorld
         GameSettings settings = GameSettings.getInstance();
         settings.setElixirMultiplier(elixirMultiplier);
         settings.setTimeMinutes(timeMinutes);
+        settings.setVsComputer(vsComputer);
+        settings.setWhiteSide(isWhiteSide);
         settings.save();
     }
     
     // Getter methods for settings
     public int getTimeMinutes() { return timeMinutes; }
     public int getElixirMultiplier() { return elixirMultiplier; }
+    public boolean isVsComputer() { return vsComputer; }
+    public boolean isWhiteSide() { return isWhiteSide; }
 }
@@ -4,20 +4,47 @@ import greenfoot.*; // (World, Actor, GreenfootImage, Greenfoot and MouseInfo)
  * Elixir bar used in the game to track how much elixir each player has
  * Indicates elixir through a bar filling up
  * 
+ * Every bar looks the same at the same fill, so the frames are drawn once and shared: one for
+ * each quarter of an elixir from empty to full, with the icon drawn once into all of them.
+ * A change of elixir slides the bar to the new amount a quarter per act, which only swaps
+ * which frame is shown, so neither a change nor the animation allocates anything.
+ * 
  * @author Owen Lee
  * @version
  */
 
 public class ElixirBar extends Actor
 {
-    private int maxElixir = 10;
+    private static final int MAX_ELIXIR = 10;
+    private static final int BAR_WIDTH = 200;
+    private static final int BAR_HEIGHT = 30;
+    private static final int ICON_SIZE = 50;
+    private static final int ICON_PADDING = 1;
+    
+    // frames per elixir, the animation moves one frame per act
+    private static final int STEPS = 4;
+    
+    // frames[i] shows i / STEPS elixir, drawn the first time a bar is made
+    private static GreenfootImage[] frames;
+    
     private int currentElixir = 0;
-    private int barWidth = 200;
-    private int barHeight = 30;
+    private int shownFrame = 0;
     
     public ElixirBar()
     {
-        updateImage();
+        if (frames == null) drawFrames();
+        setImage(frames[0]);
+    }
+    
+    /**
+     * Slide the bar one frame towards the current amount
+     */
+    public void act()
+    {
+        int target = currentElixir * STEPS;
+        if (shownFrame == target) return;
+        shownFrame += shownFrame < target ? 1 : -1;
+        setImage(frames[shownFrame]);
     }
     
     /**
@@ -27,8 +54,14 @@ public class ElixirBar extends Actor
      */
     public void setElixir(int amount)
     {
-        currentElixir = Math.max(0, Math.min(amount, maxElixir));
-        updateImage();
+        currentElixir = Math.max(0, Math.min(amount, MAX_ELIXIR));
+        
+        // a bar that is not in a world yet does not act, so it shows the amount at once
+        if (getWorld() == null)
+        {
+            shownFrame = currentElixir * STEPS;
+            setImage(frames[shownFrame]);
+        }
     }
     
     /**
@@ -68,7 +101,7 @@ public class ElixirBar extends Actor
      */
     public boolean isFull()
     {
-        return currentElixir >= maxElixir;
+        return currentElixir >= MAX_ELIXIR;
     }
     
     /**
@@ -81,45 +114,48 @@ public class ElixirBar extends Actor
         return currentElixir <= 0;
     }
     
-    //create the bar and fill it up based on elixir amount
-    private void updateImage()
+    /**
+     * draw every frame of the bar, from empty to full
+     */
+    private static void drawFrames()
     {
-        // Add space for the icon on the left
-        int iconSize = 50;
-        int iconPadding = 1;
-        int totalWidth = iconSize + iconPadding + barWidth + 4;
-        
-        GreenfootImage img = new GreenfootImage(totalWidth, barHeight + 4);
+        int totalWidth = ICON_SIZE + ICON_PADDING + BAR_WIDTH + 4;
+        int barStartX = ICON_SIZE + ICON_PADDING;
         
-        // Draw elixir icon on the left
-        GreenfootImage elixirIcon = new GreenfootImage("Elixir.png");
-        elixirIcon.scale(iconSize + 30, iconSize);
-        img.drawImage(elixirIcon, 0, (barHeight + 4 - iconSize) / 2); // Vertically center icon
+        // the icon is scaled once, for all the frames
+        GreenfootImage elixirIcon = new GreenfootImage(Atlas.get("Elixir.png"));
+        elixirIcon.scale(ICON_SIZE + 30, ICON_SIZE);
         
-        // Offset for the bar (after the icon)
-        int barStartX = iconSize + iconPadding;
-        
-        // Draw dark background for bar
-        img.setColor(new Color(50, 50, 50));
-        img.fillRect(barStartX, 0, barWidth + 4, barHeight + 4);
-        
-        // Draw purple fill
-        int fillWidth = (barWidth * currentElixir) / maxElixir;
-        img.setColor(new Color(138, 43, 226)); // Purple
-        img.fillRect(barStartX + 2, 2, fillWidth, barHeight);
-        
-        // Draw tick marks (vertical lines)
-        img.setColor(Color.WHITE);
-        int tickSpacing = barWidth / maxElixir;
-        for (int i = 0; i <= maxElixir; i++)
+        frames = new GreenfootImage[MAX_ELIXIR * STEPS + 1];
+        for (int i = 0; i < frames.length; i++)
         {
-            int x = barStartX + 2 + (i * tickSpacing);
-            img.drawLine(x, 2, x, barHeight + 2);
+            GreenfootImage img = new GreenfootImage(totalWidth, BAR_HEIGHT + 4);
+            
+            // Draw elixir icon on the left, vertically centered
+            img.drawImage(elixirIcon, 0, (BAR_HEIGHT + 4 - ICON_SIZE) / 2);
+            
+            // Draw dark background for bar
+            img.setColor(new Color(50, 50, 50));
+            img.fillRect(barStartX, 0, BAR_WIDTH + 4, BAR_HEIGHT + 4);
+            
+            // Draw purple fill
+            int fillWidth = (BAR_WIDTH * i) / (MAX_ELIXIR * STEPS);
+            img.setColor(new Color(138, 43, 226)); // Purple
+            img.fillRect(barStartX + 2, 2, fillWidth, BAR_HEIGHT);
+            
+            // Draw tick marks (vertical lines)
+            img.setColor(Color.WHITE);
+            int tickSpacing = BAR_WIDTH / MAX_ELIXIR;
+            for (int tick = 0; tick <= MAX_ELIXIR; tick++)
+            {
+                int x = barStartX + 2 + (tick * tickSpacing);
+                img.drawLine(x, 2, x, BAR_HEIGHT + 2);
+            }
+            
+            // Draw white border
+            img.drawRect(barStartX + 1, 1, BAR_WIDTH + 2, BAR_HEIGHT + 2);
+            
+            frames[i] = img;
         }
-        
-        // Draw white border
-        img.drawRect(barStartX + 1, 1, barWidth + 2, barHeight + 2);
-        
-        setImage(img);
     }
 }
\ No newline at end of file
@@ -0,0 +1,406 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.Arrays;
+
+/**
+ * Runs the engine as a separate process, talking a line-based protocol on stdin/stdout
+ * The protocol follows UCI, so the usual commands work the usual way:
+ *     uci, isready, setoption name N value V, ucinewgame, stop, ponderhit, quit
+ *     position startpos [elixir M] [moves m1 m2 ...]
+ *     go [wtime T] [btime T] [movetime T] [depth D] [infinite] [ponder]
+ * and the engine answers with id, option, uciok, readyok, info and bestmove lines.
+ * Moves are written as Move.toString writes them ("e2e4", "slash:b1", "bomb:e1e5", "pass").
+ *
+ * ClashMate extensions:
+ *     position text <GameState.toText fields> [moves ...]   any position, with elixir and bombs
+ *     position startpos elixir M                             a game at elixir multiplier M
+ *     d        the board, the position text, each side's elixir and the pending bombs
+ *     legal    the legal moves, each with the elixir it costs
+ *     costs    ability and promotion costs for every piece type
+ *     eval     the static evaluation for the side to move
+ *
+ * Searches run on their own thread so stop and ponderhit are read while they run. As in UCI,
+ * bestmove for "go infinite" or "go ponder" is held back until stop (or ponderhit), even if
+ * the search finishes first.
+ *
+ * Run with:
+ *     java EngineServer
+ *
+ * @author Saiful Shaik
+ * @version 2/19/2026
+ */
+public class EngineServer
+{
+    private static final int MAX_DEPTH = 32;
+    private static final long NO_TIME_LIMIT = 24L * 60 * 60 * 1000;
+
+    // options, as the uci command lists them
+    private int threads = ParallelSearch.defaultThreads();
+    private int hashMegabytes = 64;
+    private boolean ownBook = true;
+
+    private ParallelSearch search;
+    private OpeningBook book;
+    private Tablebase tablebase;
+    private GameState position = GameState.standard(1);
+
+    // the running go command
+    private Thread thread;
+    private TimeManager ponderTime;
+    private long ponderClock;
+    private boolean holdResult;
+
+    public static void main(String[] args) throws IOException {
+        new EngineServer().run(new BufferedReader(new InputStreamReader(System.in)));
+    }
+
+    /**
+     * read commands until quit or the end of the input
+     */
+    public void run(BufferedReader in) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            String[] words = line.trim().split("\\s+");
+            if (words[0].isEmpty()) continue;
+            if (words[0].equals("quit")) break;
+            try {
+                command(words);
+            }
+            catch (RuntimeException e) {
+                // a bad command is reported, never the end of the engine
+                send("info string error: " + message(e));
+            }
+        }
+        stopSearch();
+        if (search != null) search.shutdown();
+    }
+
+    private void command(String[] words) {
+        switch (words[0]) {
+            case "uci":
+                send("id name ClashMate");
+                send("id author Saiful Shaik");
+                send("option name Threads type spin default " + threads + " min 1 max 64");
+                send("option name Hash type spin default " + hashMegabytes + " min 1 max 4096");
+                send("option name OwnBook type check default " + ownBook);
+                send("option name Ponder type check default true");
+                send("uciok");
+                break;
+            case "isready":
+                engine();
+                send("readyok");
+                break;
+            case "setoption":
+                setOption(words);
+                break;
+            case "ucinewgame":
+                stopSearch();
+                engine().clearTable();
+                break;
+            case "position":
+                stopSearch();
+                position = readPosition(words);
+                break;
+            case "go":
+                stopSearch();
+                go(words);
+                break;
+            case "stop":
+                stopSearch();
+                break;
+            case "ponderhit":
+                ponderHit();
+                break;
+            case "d":
+                display();
+                break;
+            case "legal":
+                legal();
+                break;
+            case "costs":
+                costs();
+                break;
+            case "eval":
+                send("info string eval " + Evaluation.evaluate(position));
+                break;
+            default:
+                send("info string unknown command: " + words[0]);
+        }
+    }
+
+    /**
+     * the search, made on first use so the options set before it are applied
+     */
+    private ParallelSearch engine() {
+        if (search == null) {
+            search = new ParallelSearch(threads, hashMegabytes);
+            if (book == null) book = new OpeningBook(OpeningBook.BOOK_FILE);
+            if (tablebase == null) tablebase = new Tablebase(Tablebase.DIRECTORY);
+            search.setTablebase(tablebase);
+        }
+        return search;
+    }
+
+    private void setOption(String[] words) {
+        String name = wordAfter(words, "name");
+        String value = wordAfter(words, "value");
+        if (name == null || value == null) throw new IllegalArgumentException("setoption name <name> value <value>");
+        stopSearch();
+        switch (name.toLowerCase()) {
+            case "threads":
+                threads = Math.max(1, Integer.parseInt(value));
+                resetEngine();
+                break;
+            case "hash":
+                hashMegabytes = Math.max(1, Integer.parseInt(value));
+                resetEngine();
+                break;
+            case "ownbook":
+                ownBook = Boolean.parseBoolean(value);
+                break;
+            case "ponder":
+                // pondering is up to the GUI sending "go ponder", nothing to change
+                break;
+            default:
+                throw new IllegalArgumentException("no such option: " + name);
+        }
+    }
+
+    private void resetEngine() {
+        if (search != null) search.shutdown();
+        search = null;
+    }
+
+    // ===== position =====
+
+    /**
+     * position startpos [elixir M] [moves ...] or position text <fields> [moves ...]
+     */
+    private static GameState readPosition(String[] words) {
+        if (words.length < 2) throw new IllegalArgumentException("position startpos|text ...");
+        int movesAt = indexOf(words, "moves");
+        int end = movesAt < 0 ? words.length : movesAt;
+
+        GameState state;
+        if (words[1].equals("startpos")) {
+            String multiplier = wordAfter(words, "elixir");
+            state = GameState.standard(multiplier == null ? 1 : Integer.parseInt(multiplier));
+        }
+        else if (words[1].equals("text")) {
+            state = GameState.fromText(String.join(" ", Arrays.copyOfRange(words, 2, end)));
+        }
+        else {
+            throw new IllegalArgumentException("position startpos|text ...");
+        }
+
+        for (int i = movesAt + 1; movesAt >= 0 && i < words.length; i++) {
+            int move = Move.parse(state, words[i]);
+            if (move == Move.NONE) throw new IllegalArgumentException("illegal move " + words[i]);
+            state.makeMove(move);
+        }
+        return state;
+    }
+
+    // ===== go =====
+
+    private void go(String[] words) {
+        int side = position.getSideToMove();
+        String clock = wordAfter(words, side == GameState.WHITE ? "wtime" : "btime");
+        String moveTime = wordAfter(words, "movetime");
+        String depthText = wordAfter(words, "depth");
+        boolean infinite = indexOf(words, "infinite") >= 0;
+        boolean ponder = indexOf(words, "ponder") >= 0;
+        int depth = depthText == null ? MAX_DEPTH : Integer.parseInt(depthText);
+        long clockMillis = clock == null ? -1 : Long.parseLong(clock);
+
+        ParallelSearch engine = engine();
+        GameState state = new GameState(position);
+        TimeManager time = infinite || ponder ? TimeManager.forPondering()
+            : clockMillis >= 0 ? new TimeManager(clockMillis, state) : null;
+        long millis = moveTime != null ? Long.parseLong(moveTime) : NO_TIME_LIMIT;
+
+        synchronized (this) {
+            holdResult = infinite || ponder;
+            ponderTime = ponder ? time : null;
+            ponderClock = clockMillis;
+        }
+        thread = new Thread(() -> {
+            long start = System.nanoTime();
+            int move = Move.NONE;
+            try {
+                if (ownBook && !infinite && !ponder) {
+                    move = book.probe(state);
+                    if (move == Move.NONE) move = tablebase.bestMove(state);
+                }
+                if (move == Move.NONE) {
+                    move = time != null ? engine.search(state, depth, time) : engine.search(state, depth, millis);
+                    info(engine, System.nanoTime() - start);
+                }
+            }
+            catch (RuntimeException e) {
+                send("info string error: " + message(e));
+            }
+            waitForRelease();
+            sendBestMove(engine, state, move);
+        }, "ClashMate engine server search");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void ponderHit() {
+        TimeManager time;
+        synchronized (this) {
+            time = ponderTime;
+            ponderTime = null;
+            holdResult = false;
+            notifyAll();
+        }
+        if (time == null || thread == null) return;
+        time.ponderHit(ponderClock >= 0 ? ponderClock : NO_TIME_LIMIT, position);
+        search.ponderHit(time);
+    }
+
+    /**
+     * stop the running search, letting it send its bestmove, and wait for it
+     */
+    private void stopSearch() {
+        if (thread == null) return;
+        synchronized (this) {
+            holdResult = false;
+            ponderTime = null;
+            notifyAll();
+        }
+        try {
+            // stop again until it ends, in case it had not started searching the first time
+            while (thread.isAlive()) {
+                search.stop();
+                thread.join(10);
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    private synchronized void waitForRelease() {
+        try {
+            while (holdResult) wait();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void info(ParallelSearch engine, long nanos) {
+        long millis = nanos / 1000000L;
+        int score = engine.getBestScore();
+        String scoreText;
+        if (Math.abs(score) >= Search.WIN_BOUND) {
+            // moves (not plies) to the end of the game, negative when losing
+            int plies = Search.WIN - Math.abs(score);
+            scoreText = "mate " + (score > 0 ? (plies + 1) / 2 : -(plies / 2));
+        }
+        else {
+            scoreText = "cp " + score;
+        }
+        long nodes = engine.getNodes();
+        send("info depth " + engine.getCompletedDepth() + " score " + scoreText + " nodes " + nodes
+            + " nps " + (nodes * 1000 / Math.max(1, millis)) + " time " + millis);
+    }
+
+    private void sendBestMove(ParallelSearch engine, GameState state, int move) {
+        if (move == Move.NONE) {
+            send("bestmove (none)");
+            return;
+        }
+        state.makeMove(move);
+        int reply = state.isGameOver() ? Move.NONE : engine.tableMove(state);
+        send("bestmove " + Move.toString(move) + (reply == Move.NONE ? "" : " ponder " + Move.toString(reply)));
+    }
+
+    // ===== ClashMate extensions =====
+
+    private void display() {
+        for (int row = 0; row < GameState.ROWS; row++) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(8 - row).append(' ');
+            for (int col = 0; col < GameState.COLS; col++) {
+                int sq = GameState.square(row, col);
+                char letter = '.';
+                if (!position.isEmpty(sq)) {
+                    letter = Move.typeLetter(position.typeAt(sq));
+                    if (position.colorAt(sq) == GameState.WHITE) letter = Character.toUpperCase(letter);
+                }
+                sb.append(' ').append(letter);
+            }
+            send(sb.toString());
+        }
+        send("   a b c d e f g h");
+        send("text " + position.toText());
+        send("side " + (position.getSideToMove() == GameState.WHITE ? "white" : "black"));
+        send("elixir white " + position.getElixir(GameState.WHITE) + " black " + position.getElixir(GameState.BLACK)
+            + " multiplier " + position.getElixirMultiplier());
+        for (int i = 0; i < position.getBombCount(); i++) {
+            send("bomb " + Move.squareName(position.getBombSquare(i))
+                + " owner " + (position.getBombOwner(i) == GameState.WHITE ? "white" : "black")
+                + " timer " + position.getBombTimer(i));
+        }
+    }
+
+    private void legal() {
+        MoveList list = new MoveList();
+        MoveGenerator.generate(position, list);
+        StringBuilder sb = new StringBuilder("legal");
+        for (int i = 0; i < list.size(); i++) {
+            int move = list.get(i);
+            sb.append(' ').append(Move.toString(move));
+            int cost = elixirCost(position, move);
+            if (cost > 0) sb.append('(').append(cost).append(')');
+        }
+        send(sb.toString());
+    }
+
+    private void costs() {
+        for (int type = 0; type < GameState.PIECE_TYPES; type++) {
+            send("cost " + Move.typeLetter(type) + " ability " + GameState.abilityCost(type)
+                + " promotion " + GameState.promotionCost(type));
+        }
+    }
+
+    /**
+     * elixir a move spends, the same way GameState.applyMove charges it
+     */
+    private static int elixirCost(GameState state, int move) {
+        int cost = Move.isAbility(move) ? GameState.abilityCost(state.typeAt(Move.from(move))) : 0;
+        if (Move.promotion(move) != GameState.EMPTY) cost += GameState.promotionCost(Move.promotion(move));
+        return cost;
+    }
+
+    // ===== helpers =====
+
+    private static int indexOf(String[] words, String word) {
+        for (int i = 0; i < words.length; i++) {
+            if (words[i].equals(word)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * the word following a keyword, or null if the keyword is missing
+     */
+    private static String wordAfter(String[] words, String keyword) {
+        int i = indexOf(words, keyword);
+        return i < 0 || i + 1 >= words.length ? null : words[i + 1];
+    }
+
+    private static String message(RuntimeException e) {
+        return e instanceof IllegalArgumentException ? e.getMessage() : e.toString();
+    }
+
+    private static synchronized void send(String line) {
+        System.out.println(line);
+        System.out.flush();
+    }
+}
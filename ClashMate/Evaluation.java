@@ -0,0 +1,320 @@
+import java.io.*;
+
+/**
+ * Static evaluation used by the engines
+ * Scores a position for the side to move in centipawn-like units (a royal recruit is 100)
+ * from these terms:
+ *  - material and piece-square tables, kept up to date by GameState as pieces move
+ *    (see pieceSquare), so they cost nothing to read here
+ *  - mobility, from the same target bitboards the move rules use
+ *  - royal giant safety: own pieces guarding it, enemy pieces next to it
+ *  - pending bombs: pieces standing in a blast, weighed by how soon it goes off
+ *  - banked elixir, plus a bonus for each piece whose ability the bank already pays for
+ *
+ * Material and piece-square values cost nothing per node. The other terms are a handful of
+ * bitboard operations each, apart from mobility, which asks GameState.getValidTargets for
+ * every piece that has a mobility weight, so its cost grows with the number of pieces on
+ * the board.
+ *
+ * Every weight is linear in the score, so the evaluation is also available as a feature
+ * vector (see features) for Tuner to fit. Tuned weights are saved to eval_weights.txt and
+ * read once, when the class is loaded; nothing changes them after that, which GameState's
+ * running piece-square totals rely on.
+ *
+ * @author Saiful Shaik
+ * @version 2/17/2026
+ */
+public final class Evaluation
+{
+    // material, indexed by GameState piece type
+    // dark prince, knight, musketeer, royal giant, skeleton, witch, royal recruits
+    static final int[] MATERIAL = { 500, 300, 320, 350, 60, 900, 100 };
+
+    // piece-square bonuses from white's side, indexed [type][square]; black reads them mirrored
+    static final int[][] PIECE_SQUARE = new int[GameState.PIECE_TYPES][GameState.SQUARES];
+
+    // per target square a piece can move to
+    static final int[] MOBILITY = { 2, 4, 3, 0, 0, 1, 0 };
+
+    // royal giant safety, per own piece next to it and per enemy piece next to it (8 and 12
+    // unless tuned, see the static block)
+    static final int GIANT_SHIELD;
+    static final int GIANT_ATTACKER;
+
+    // percent of a piece's value lost to a bomb about to go off, indexed by turns left
+    static final int[] BOMB_THREAT = { 0, 60, 35, 20, 10 };
+
+    // per point of banked elixir (8 unless tuned), and per piece (up to two of a type) whose
+    // ability it can pay for
+    static final int ELIXIR;
+    static final int[] ABILITY_READY = { 25, 15, 20, 30, 0, 25, 5 };
+
+    public static final String WEIGHTS_FILE = "eval_weights.txt";
+
+    // where each term starts in the weights, in the order getWeights lists them
+    private static final int MATERIAL_AT = 0;
+    private static final int PIECE_SQUARE_AT = MATERIAL_AT + GameState.PIECE_TYPES;
+    private static final int MOBILITY_AT = PIECE_SQUARE_AT + GameState.PIECE_TYPES * GameState.SQUARES;
+    private static final int GIANT_AT = MOBILITY_AT + GameState.PIECE_TYPES;
+    private static final int BOMB_AT = GIANT_AT + 2;
+    private static final int ELIXIR_AT = BOMB_AT + BOMB_THREAT.length;
+    private static final int READY_AT = ELIXIR_AT + 1;
+
+    // number of weights
+    public static final int WEIGHT_COUNT = READY_AT + GameState.PIECE_TYPES;
+
+    static {
+        for (int sq = 0; sq < GameState.SQUARES; sq++) {
+            int row = GameState.rowOf(sq);
+            int col = GameState.colOf(sq);
+            // rows white has advanced past its back row, and closeness to the middle (-1 to 5)
+            int advance = GameState.ROWS - 1 - row;
+            int centre = 6 - (Math.abs(2 * row - 7) + Math.abs(2 * col - 7)) / 2;
+            boolean middleFile = col == 3 || col == 4;
+
+            PIECE_SQUARE[GameState.DARK_PRINCE][sq] = (row == 1 ? 15 : 0) + (middleFile ? 5 : 0);
+            PIECE_SQUARE[GameState.KNIGHT][sq] = 6 * centre - 10;
+            PIECE_SQUARE[GameState.MUSKETEER][sq] = 3 * centre;
+            PIECE_SQUARE[GameState.ROYAL_GIANT][sq] = advance == 0 ? 10 : -5 * advance;
+            PIECE_SQUARE[GameState.SKELETON][sq] = 4 * advance;
+            PIECE_SQUARE[GameState.WITCH][sq] = 2 * centre;
+            PIECE_SQUARE[GameState.ROYAL_RECRUITS][sq] = 10 * Math.max(0, advance - 1) + (middleFile ? 5 : 0);
+        }
+
+        // tuned weights replace the defaults
+        int[] tuned = new File(WEIGHTS_FILE).exists() ? loadWeights(WEIGHTS_FILE) : null;
+        if (tuned != null) {
+            System.arraycopy(tuned, MATERIAL_AT, MATERIAL, 0, MATERIAL.length);
+            for (int type = 0; type < GameState.PIECE_TYPES; type++) {
+                System.arraycopy(tuned, PIECE_SQUARE_AT + type * GameState.SQUARES, PIECE_SQUARE[type], 0, GameState.SQUARES);
+            }
+            System.arraycopy(tuned, MOBILITY_AT, MOBILITY, 0, MOBILITY.length);
+            System.arraycopy(tuned, BOMB_AT, BOMB_THREAT, 0, BOMB_THREAT.length);
+            System.arraycopy(tuned, READY_AT, ABILITY_READY, 0, ABILITY_READY.length);
+        }
+        GIANT_SHIELD = tuned != null ? tuned[GIANT_AT] : 8;
+        GIANT_ATTACKER = tuned != null ? tuned[GIANT_AT + 1] : 12;
+        ELIXIR = tuned != null ? tuned[ELIXIR_AT] : 8;
+    }
+
+    private Evaluation() {
+    }
+
+    /**
+     * Material plus piece-square value of one piece, the amount GameState adds to its
+     * colour's running total when the piece is placed and takes off when it leaves
+     */
+    public static int pieceSquare(int color, int type, int sq) {
+        int relative = color == GameState.WHITE ? sq : sq ^ 56;
+        return MATERIAL[type] + PIECE_SQUARE[type][relative];
+    }
+
+    /**
+     * material value of a piece type (used by move ordering)
+     */
+    public static int pieceValue(int type) {
+        return MATERIAL[type];
+    }
+
+    /**
+     * percent of the value in a blast a bomb is expected to take, by turns left
+     */
+    public static int bombThreat(int timer) {
+        return BOMB_THREAT[Math.min(timer, BOMB_THREAT.length - 1)];
+    }
+
+    /**
+     * Score a position
+     *
+     * @param state the position
+     * @return int the score for the side to move, positive when it is ahead
+     */
+    public static int evaluate(GameState state) {
+        int score = state.getPieceSquareScore(GameState.WHITE) - state.getPieceSquareScore(GameState.BLACK);
+        score += mobility(state, GameState.WHITE) - mobility(state, GameState.BLACK);
+        score += giantSafety(state, GameState.WHITE) - giantSafety(state, GameState.BLACK);
+        score += elixir(state, GameState.WHITE) - elixir(state, GameState.BLACK);
+        score += bombThreats(state);
+        return state.getSideToMove() == GameState.WHITE ? score : -score;
+    }
+
+    /**
+     * squares a colour's pieces can move to, weighted by piece type
+     */
+    static int mobility(GameState state, int color) {
+        int score = 0;
+        for (int type = 0; type < GameState.PIECE_TYPES; type++) {
+            if (MOBILITY[type] == 0) continue;
+            for (long m = state.getPieces(color, type); m != 0; m &= m - 1) {
+                int sq = Long.numberOfTrailingZeros(m);
+                score += MOBILITY[type] * Long.bitCount(state.getValidTargets(sq, false));
+            }
+        }
+        return score;
+    }
+
+    /**
+     * own pieces guarding each royal giant less enemy pieces next to it
+     */
+    static int giantSafety(GameState state, int color) {
+        long own = state.getOccupancy(color);
+        long enemy = state.getOccupancy(1 - color);
+        int score = 0;
+        for (long m = state.getPieces(color, GameState.ROYAL_GIANT); m != 0; m &= m - 1) {
+            long around = Bitboards.KING[Long.numberOfTrailingZeros(m)];
+            score += GIANT_SHIELD * Long.bitCount(around & own);
+            score -= GIANT_ATTACKER * Long.bitCount(around & enemy);
+        }
+        return score;
+    }
+
+    /**
+     * banked elixir, plus the abilities it can already pay for
+     */
+    static int elixir(GameState state, int color) {
+        int elixir = state.getElixir(color);
+        int score = ELIXIR * elixir;
+        for (int type = 0; type < GameState.PIECE_TYPES; type++) {
+            if (elixir < GameState.abilityCost(type)) continue;
+            int count = Math.min(2, Long.bitCount(state.getPieces(color, type)));
+            score += ABILITY_READY[type] * count;
+        }
+        return score;
+    }
+
+    /**
+     * value white stands to gain (or lose) from the pending bombs, counting the
+     * enemy pieces in each blast by how soon it goes off
+     */
+    static int bombThreats(GameState state) {
+        int score = 0;
+        for (int i = 0; i < state.getBombCount(); i++) {
+            int owner = state.getBombOwner(i);
+            int threat = BOMB_THREAT[Math.min(state.getBombTimer(i), BOMB_THREAT.length - 1)];
+            long victims = Bitboards.BLAST[state.getBombSquare(i)] & state.getOccupancy(1 - owner);
+            int value = 0;
+            for (long m = victims; m != 0; m &= m - 1) {
+                value += MATERIAL[state.typeAt(Long.numberOfTrailingZeros(m))];
+            }
+            value = value * threat / 100;
+            score += owner == GameState.WHITE ? value : -value;
+        }
+        return score;
+    }
+
+    // ===== weights as a vector =====
+    // material, piece-square, mobility, giant shield and attacker, bomb threat, elixir, ability ready
+
+    /**
+     * Every weight in one array, in the same order as features
+     */
+    public static int[] getWeights() {
+        int[] weights = new int[WEIGHT_COUNT];
+        int i = 0;
+        for (int w : MATERIAL) weights[i++] = w;
+        for (int[] table : PIECE_SQUARE) {
+            for (int w : table) weights[i++] = w;
+        }
+        for (int w : MOBILITY) weights[i++] = w;
+        weights[i++] = GIANT_SHIELD;
+        weights[i++] = GIANT_ATTACKER;
+        for (int w : BOMB_THREAT) weights[i++] = w;
+        weights[i++] = ELIXIR;
+        for (int w : ABILITY_READY) weights[i++] = w;
+        return weights;
+    }
+
+    /**
+     * Write the features of a position, from white's side, so that the dot product with
+     * getWeights is the white score evaluate works out (up to the rounding in bomb threats)
+     *
+     * @param state the position
+     * @param out array of WEIGHT_COUNT entries, overwritten
+     */
+    public static void features(GameState state, double[] out) {
+        java.util.Arrays.fill(out, 0.0);
+        int material = MATERIAL_AT;
+        int pieceSquare = PIECE_SQUARE_AT;
+        int mobility = MOBILITY_AT;
+        int giant = GIANT_AT;
+        int bomb = BOMB_AT;
+        int elixir = ELIXIR_AT;
+        int ready = READY_AT;
+
+        for (int color = 0; color < 2; color++) {
+            int sign = color == GameState.WHITE ? 1 : -1;
+            long own = state.getOccupancy(color);
+            long enemy = state.getOccupancy(1 - color);
+            int bank = state.getElixir(color);
+
+            for (int type = 0; type < GameState.PIECE_TYPES; type++) {
+                long pieces = state.getPieces(color, type);
+                out[material + type] += sign * Long.bitCount(pieces);
+                for (long m = pieces; m != 0; m &= m - 1) {
+                    int sq = Long.numberOfTrailingZeros(m);
+                    int relative = color == GameState.WHITE ? sq : sq ^ 56;
+                    out[pieceSquare + type * GameState.SQUARES + relative] += sign;
+                    out[mobility + type] += sign * Long.bitCount(state.getValidTargets(sq, false));
+                    if (type == GameState.ROYAL_GIANT) {
+                        out[giant] += sign * Long.bitCount(Bitboards.KING[sq] & own);
+                        out[giant + 1] -= sign * Long.bitCount(Bitboards.KING[sq] & enemy);
+                    }
+                }
+                if (bank >= GameState.abilityCost(type)) {
+                    out[ready + type] += sign * Math.min(2, Long.bitCount(pieces));
+                }
+            }
+            out[elixir] += sign * bank;
+        }
+
+        for (int i = 0; i < state.getBombCount(); i++) {
+            int owner = state.getBombOwner(i);
+            int timer = Math.min(state.getBombTimer(i), BOMB_THREAT.length - 1);
+            long victims = Bitboards.BLAST[state.getBombSquare(i)] & state.getOccupancy(1 - owner);
+            int value = 0;
+            for (long m = victims; m != 0; m &= m - 1) {
+                value += MATERIAL[state.typeAt(Long.numberOfTrailingZeros(m))];
+            }
+            out[bomb + timer] += (owner == GameState.WHITE ? 1 : -1) * value / 100.0;
+        }
+    }
+
+    /**
+     * Save weights, e.g. ones Tuner has fitted, one per line in getWeights order
+     * They take effect the next time the program starts
+     * @return true if the file was written
+     */
+    public static boolean saveWeights(int[] weights, String fileName) {
+        if (weights.length != WEIGHT_COUNT) throw new IllegalArgumentException("expected " + WEIGHT_COUNT + " weights");
+        try (PrintWriter writer = new PrintWriter(new FileWriter(fileName))) {
+            for (int w : weights) {
+                writer.println(w);
+            }
+            return true;
+        }
+        catch (IOException e) {
+            System.err.println("Error saving evaluation weights: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * read weights written by saveWeights
+     * @return int[] the weights, or null if the file is unreadable
+     */
+    private static int[] loadWeights(String fileName) {
+        int[] weights = new int[WEIGHT_COUNT];
+        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
+            for (int i = 0; i < WEIGHT_COUNT; i++) {
+                String line = reader.readLine();
+                if (line == null) throw new IOException("only " + i + " weights");
+                weights[i] = Integer.parseInt(line.trim());
+            }
+        }
+        catch (IOException | NumberFormatException e) {
+            System.err.println("Error loading evaluation weights: " + e.getMessage());
+            return null;
+        }
+        return weights;
+    }
+}
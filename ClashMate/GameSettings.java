@@ -14,6 +14,9 @@ public class GameSettings
     private int elixirMultiplier = 1;
     private int timeMinutes = 10;
     private boolean isWhiteSide = true;
+    private boolean vsComputer = false;
+    private boolean pondering = true;
+    private int searchThreads = ParallelSearch.defaultThreads();
     
     // Volume settings (0-100)
     private int masterVolume = 100;
@@ -85,6 +88,30 @@ public class GameSettings
         return isWhiteSide;
     }
     
+    /**
+     * Check if the player is against the computer (it takes the other side)
+     */
+    public boolean isVsComputer()
+    {
+        return vsComputer;
+    }
+    
+    /**
+     * Check if the computer keeps thinking during the player's turn
+     */
+    public boolean isPondering()
+    {
+        return pondering;
+    }
+    
+    /**
+     * Get the number of threads the computer searches with (1 to the number of cores)
+     */
+    public int getSearchThreads()
+    {
+        return searchThreads;
+    }
+    
     /**
      * Get master volume (0-100)
      */
@@ -135,6 +162,30 @@ public class GameSettings
         this.isWhiteSide = isWhite;
     }
     
+    /**
+     * Set whether the other side is played by the computer
+     */
+    public void setVsComputer(boolean vsComputer)
+    {
+        this.vsComputer = vsComputer;
+    }
+    
+    /**
+     * Set whether the computer thinks during the player's turn
+     */
+    public void setPondering(boolean pondering)
+    {
+        this.pondering = pondering;
+    }
+    
+    /**
+     * Set the number of search threads (clamped to 1 to the number of cores)
+     */
+    public void setSearchThreads(int threads)
+    {
+        this.searchThreads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), threads));
+    }
+    
     /**
      * Set master volume (clamped to 0-100)
      */
@@ -172,6 +223,9 @@ public class GameSettings
             writer.println("elixirMultiplier=" + elixirMultiplier);
             writer.println("timeMinutes=" + timeMinutes);
             writer.println("isWhiteSide=" + isWhiteSide);
+            writer.println("vsComputer=" + vsComputer);
+            writer.println("pondering=" + pondering);
+            writer.println("searchThreads=" + searchThreads);
             writer.println("masterVolume=" + masterVolume);
             writer.println("musicVolume=" + musicVolume);
             writer.println("sfxVolume=" + sfxVolume);
@@ -220,6 +274,15 @@ public class GameSettings
                         case "isWhiteSide":
                             setWhiteSide(Boolean.parseBoolean(value));
                             break;
+                        case "vsComputer":
+                            setVsComputer(Boolean.parseBoolean(value));
+                            break;
+                        case "pondering":
+                            setPondering(Boolean.parseBoolean(value));
+                            break;
+                        case "searchThreads":
+                            setSearchThreads(Integer.parseInt(value));
+                            break;
                         case "masterVolume":
                             setMasterVolume(Integer.parseInt(value));
                             break;
@@ -241,6 +304,7 @@ public class GameSettings
             setElixirMultiplier(1);
             setTimeMinutes(10);
             setWhiteSide(true);
+            setVsComputer(false);
             return false;
         }
     }
@@ -251,7 +315,7 @@ public class GameSettings
     @Override
     public String toString()
     {
-        return String.format("GameSettings[elixir=%dx, time=%dmin, side=%s]",
-            elixirMultiplier, timeMinutes, isWhiteSide ? "WHITE" : "BLACK");
+        return String.format("GameSettings[elixir=%dx, time=%dmin, side=%s, opponent=%s]",
+            elixirMultiplier, timeMinutes, isWhiteSide ? "WHITE" : "BLACK", vsComputer ? "computer" : "human");
     }
 }
@@ -0,0 +1,1153 @@
+import java.util.Arrays;
+
+/**
+ * Headless model of a ClashMate game
+ * Holds the board, side to move, elixir, en passant, pending bombs and castling rights,
+ * and applies every rule without touching Greenfoot so positions can be evaluated
+ * without building a world full of Block actors.
+ *
+ * GridWorld owns one of these and the Piece/Block actors render from it
+ *
+ * The board is kept twice: a type/colour array for "what is on this square" lookups and
+ * a bitboard per colour and type (plus occupancy) that the move rules and abilities
+ * work on as mask operations, see Bitboards
+ *
+ * makeMove/unmakeMove play a packed move (see Move) and take it back again. Every square
+ * change is written to a journal and the scalar state (elixir, en passant, castling, bombs)
+ * is saved per ply, so a search can walk millions of positions on a single instance
+ *
+ * A Zobrist hash of the whole position (see Zobrist) is updated alongside every change,
+ * so getHash identifies a position in O(1)
+ *
+ * Squares are numbered row * 8 + col, where row is Block.getBoardX() (0 is black's back row)
+ * and col is Block.getBoardY()
+ *
+ * @author Saiful Shaik
+ * @version 2/2/2026
+ */
+public class GameState
+{
+    // colours
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    // piece types, same order as Piece.PieceType so ordinal() maps straight across
+    public static final int DARK_PRINCE = 0;
+    public static final int KNIGHT = 1;
+    public static final int MUSKETEER = 2;
+    public static final int ROYAL_GIANT = 3;
+    public static final int SKELETON = 4;
+    public static final int WITCH = 5;
+    public static final int ROYAL_RECRUITS = 6;
+    public static final int PIECE_TYPES = 7;
+    public static final int EMPTY = -1;
+
+    // game results
+    public static final int ONGOING = 0;
+    public static final int WHITE_WINS = 1;
+    public static final int BLACK_WINS = 2;
+    public static final int DRAW = 3;
+
+    // castling rights, one bit per rook
+    public static final int WHITE_LONG = 1;
+    public static final int WHITE_SHORT = 2;
+    public static final int BLACK_LONG = 4;
+    public static final int BLACK_SHORT = 8;
+
+    // board size
+    public static final int ROWS = 8;
+    public static final int COLS = 8;
+    public static final int SQUARES = 64;
+
+    public static final int MAX_ELIXIR = 10;
+    public static final int BOMB_FUSE = 4;
+    public static final int MAX_BOMBS = 16;
+
+    // elixir cost of each piece's ability, indexed by type
+    private static final int[] ABILITY_COST = { 5, 3, 3, 8, 0, 4, 1 };
+
+    // elixir cost of promoting a recruit into each type, 0 if it cannot be promoted to
+    private static final int[] PROMOTION_COST = { 5, 2, 3, 5, 0, 6, 0 };
+
+    // board contents
+    private int[] types;
+    private int[] colors;
+
+    // bitboards, one per colour and type, plus each colour's occupancy and both together
+    private long[][] pieces;
+    private long[] colorOccupancy;
+    private long occupied;
+
+    // pieces that count towards win/draw (skeletons are summons and do not)
+    private int[] armyCount;
+
+    // running material + piece-square total per colour (see Evaluation.pieceSquare)
+    private int[] pieceSquareScore;
+
+    private int sideToMove;
+    private int[] elixir;
+    private int elixirMultiplier;
+    private int castlingRights;
+
+    // square a recruit skipped over on its double step, and that recruit's square and colour
+    private int enPassantSquare;
+    private int enPassantVictim;
+    private int enPassantColor;
+
+    // pending royal giant bombs
+    private int[] bombSquare;
+    private int[] bombOwner;
+    private int[] bombTimer;
+    private int bombCount;
+
+    private int result;
+    private int plyCount;
+
+    // Zobrist hash of everything above that affects play
+    private long hash;
+
+    // undo stack: journal of overwritten squares plus the scalar state saved per ply
+    private int[] journal;
+    private int journalSize;
+    private int undoDepth;
+    private int[] undoJournalStart;
+    private int[] undoScalars;
+    private int[] undoBombs;
+    private long[] undoHash;
+
+    // hashes of the positions earlier turns started from when they were played outside makeMove
+    // (GridWorld's turns), oldest first, all before anything on the undo stack
+    private long[] history;
+    private int historySize;
+
+    // scalar fields saved per ply, and the bomb slots that follow them
+    private static final int SAVED_SCALARS = 10;
+
+    /**
+     * Create an empty board with white to move and no elixir
+     *
+     * @param elixirMultiplier elixir gained at the end of each turn (clamped to 1-3)
+     */
+    public GameState(int elixirMultiplier) {
+        types = new int[SQUARES];
+        colors = new int[SQUARES];
+        for (int sq = 0; sq < SQUARES; sq++) {
+            types[sq] = EMPTY;
+            colors[sq] = EMPTY;
+        }
+        pieces = new long[2][PIECE_TYPES];
+        colorOccupancy = new long[2];
+        occupied = 0L;
+        armyCount = new int[2];
+        pieceSquareScore = new int[2];
+        elixir = new int[2];
+        this.elixirMultiplier = Math.max(1, Math.min(3, elixirMultiplier));
+        sideToMove = WHITE;
+        castlingRights = 0;
+        enPassantSquare = EMPTY;
+        enPassantVictim = EMPTY;
+        enPassantColor = EMPTY;
+        bombSquare = new int[MAX_BOMBS];
+        bombOwner = new int[MAX_BOMBS];
+        bombTimer = new int[MAX_BOMBS];
+        bombCount = 0;
+        result = ONGOING;
+        plyCount = 0;
+        hash = computeHash();
+        initUndoStack();
+    }
+
+    /**
+     * Copy constructor
+     * The copy keeps the game's history and the moves made so far, so a search of it still sees
+     * repetitions of positions from earlier in the game (see isRepetition) and can take the
+     * makeMove ones back
+     *
+     * @param other the state to copy
+     */
+    public GameState(GameState other) {
+        types = other.types.clone();
+        colors = other.colors.clone();
+        pieces = new long[2][];
+        pieces[WHITE] = other.pieces[WHITE].clone();
+        pieces[BLACK] = other.pieces[BLACK].clone();
+        colorOccupancy = other.colorOccupancy.clone();
+        occupied = other.occupied;
+        armyCount = other.armyCount.clone();
+        pieceSquareScore = other.pieceSquareScore.clone();
+        elixir = other.elixir.clone();
+        elixirMultiplier = other.elixirMultiplier;
+        sideToMove = other.sideToMove;
+        castlingRights = other.castlingRights;
+        enPassantSquare = other.enPassantSquare;
+        enPassantVictim = other.enPassantVictim;
+        enPassantColor = other.enPassantColor;
+        bombSquare = other.bombSquare.clone();
+        bombOwner = other.bombOwner.clone();
+        bombTimer = other.bombTimer.clone();
+        bombCount = other.bombCount;
+        result = other.result;
+        plyCount = other.plyCount;
+        hash = other.hash;
+
+        journal = other.journal.clone();
+        journalSize = other.journalSize;
+        undoDepth = other.undoDepth;
+        undoJournalStart = other.undoJournalStart.clone();
+        undoScalars = other.undoScalars.clone();
+        undoBombs = other.undoBombs.clone();
+        undoHash = other.undoHash.clone();
+        history = other.history.clone();
+        historySize = other.historySize;
+    }
+
+    /**
+     * start with an empty undo stack, it grows if a game runs longer
+     */
+    private void initUndoStack() {
+        journal = new int[1024];
+        journalSize = 0;
+        undoDepth = 0;
+        undoJournalStart = new int[128];
+        undoScalars = new int[128 * SAVED_SCALARS];
+        undoBombs = new int[128 * MAX_BOMBS * 3];
+        undoHash = new long[128];
+        history = new long[128];
+        historySize = 0;
+    }
+
+    /**
+     * Create the standard starting layout used by GridWorld
+     *
+     * @param elixirMultiplier elixir gained at the end of each turn
+     * @return GameState the starting position
+     */
+    public static GameState standard(int elixirMultiplier) {
+        GameState state = new GameState(elixirMultiplier);
+        int[] backRow = { DARK_PRINCE, KNIGHT, MUSKETEER, WITCH, ROYAL_GIANT, MUSKETEER, KNIGHT, DARK_PRINCE };
+        for (int col = 0; col < COLS; col++) {
+            state.put(square(7, col), backRow[col], WHITE);
+            state.put(square(6, col), ROYAL_RECRUITS, WHITE);
+            state.put(square(0, col), backRow[col], BLACK);
+            state.put(square(1, col), ROYAL_RECRUITS, BLACK);
+        }
+        state.setCastlingRights(WHITE_LONG | WHITE_SHORT | BLACK_LONG | BLACK_SHORT);
+        return state;
+    }
+
+    /**
+     * Read a position from its text form (see toText)
+     *
+     * rows from row 0 to row 7 separated by '/', using Move's piece letters (uppercase white,
+     * lowercase black) and digits for runs of empty squares, then the side to move (w/b),
+     * castling rights (K/Q/k/q or -), en passant square or -, white elixir, black elixir,
+     * elixir multiplier, and pending bombs as square+owner+timer separated by commas or -
+     *
+     * e.g. "dnmwgmnd/rrrrrrrr/8/8/8/8/RRRRRRRR/DNMWGMND w KQkq - 0 0 1 -"
+     *
+     * @param text the position text
+     * @return GameState the position
+     * @throws IllegalArgumentException if the text is not a valid position
+     */
+    public static GameState fromText(String text) {
+        String[] fields = text.trim().split("\\s+");
+        if (fields.length != 8) throw new IllegalArgumentException("expected 8 fields: " + text);
+
+        GameState state = new GameState(number(fields[6], 1, 3, "elixir multiplier"));
+        String[] rows = fields[0].split("/");
+        if (rows.length != ROWS) throw new IllegalArgumentException("expected 8 rows: " + fields[0]);
+        for (int row = 0; row < ROWS; row++) {
+            int col = 0;
+            for (char c : rows[row].toCharArray()) {
+                if (Character.isDigit(c)) {
+                    col += c - '0';
+                    continue;
+                }
+                int type = Move.typeOfLetter(c);
+                if (type < 0 || col >= COLS) throw new IllegalArgumentException("bad row: " + rows[row]);
+                state.put(square(row, col++), type, Character.isUpperCase(c) ? WHITE : BLACK);
+            }
+            if (col != COLS) throw new IllegalArgumentException("bad row: " + rows[row]);
+        }
+
+        if (!fields[1].equals("w") && !fields[1].equals("b")) {
+            throw new IllegalArgumentException("side to move must be w or b: " + fields[1]);
+        }
+        state.setSideToMove(fields[1].equals("b") ? BLACK : WHITE);
+
+        String castling = fields[2];
+        if (!castling.matches("-|K?Q?k?q?")) throw new IllegalArgumentException("bad castling rights: " + castling);
+        int rights = 0;
+        if (castling.indexOf('K') >= 0) rights |= WHITE_SHORT;
+        if (castling.indexOf('Q') >= 0) rights |= WHITE_LONG;
+        if (castling.indexOf('k') >= 0) rights |= BLACK_SHORT;
+        if (castling.indexOf('q') >= 0) rights |= BLACK_LONG;
+        state.setCastlingRights(rights);
+
+        if (!fields[3].equals("-")) {
+            int color = 1 - state.sideToMove;
+            int sq = Move.parseSquare(fields[3]);
+            if (sq == EMPTY || square(rowOf(sq) + forward(color), colOf(sq)) == EMPTY) {
+                throw new IllegalArgumentException("bad en passant square: " + fields[3]);
+            }
+            state.setEnPassant(sq, sq + forward(color) * COLS, color);
+        }
+
+        state.setElixir(WHITE, number(fields[4], 0, MAX_ELIXIR, "white elixir"));
+        state.setElixir(BLACK, number(fields[5], 0, MAX_ELIXIR, "black elixir"));
+
+        if (!fields[7].equals("-")) {
+            for (String bomb : fields[7].split(",", -1)) {
+                // square, owner, turns left, e.g. "e4w3"
+                int sq = bomb.length() == 4 ? Move.parseSquare(bomb.substring(0, 2)) : EMPTY;
+                char owner = bomb.length() == 4 ? bomb.charAt(2) : ' ';
+                if (sq == EMPTY || (owner != 'w' && owner != 'b')) throw new IllegalArgumentException("bad bomb: " + bomb);
+                if (state.bombCount == MAX_BOMBS) throw new IllegalArgumentException("more than " + MAX_BOMBS + " bombs");
+                int timer = number(bomb.substring(3), 1, BOMB_FUSE, "bomb timer");
+                state.plantBomb(sq, owner == 'w' ? WHITE : BLACK);
+                state.setBombTimer(state.bombCount - 1, timer);
+            }
+        }
+        return state;
+    }
+
+    /**
+     * read a whole number field of the position text
+     * @throws IllegalArgumentException if it is not a number from min to max
+     */
+    private static int number(String field, int min, int max, String name) {
+        int value;
+        try {
+            value = Integer.parseInt(field);
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " is not a number: " + field);
+        }
+        if (value < min || value > max) {
+            throw new IllegalArgumentException(name + " must be from " + min + " to " + max + ": " + field);
+        }
+        return value;
+    }
+
+    /**
+     * Write this position in the text form read by fromText
+     */
+    public String toText() {
+        StringBuilder sb = new StringBuilder();
+        for (int row = 0; row < ROWS; row++) {
+            int empty = 0;
+            for (int col = 0; col < COLS; col++) {
+                int sq = square(row, col);
+                if (types[sq] == EMPTY) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) sb.append(empty);
+                empty = 0;
+                char letter = Move.typeLetter(types[sq]);
+                sb.append(colors[sq] == WHITE ? Character.toUpperCase(letter) : letter);
+            }
+            if (empty > 0) sb.append(empty);
+            if (row < ROWS - 1) sb.append('/');
+        }
+
+        sb.append(sideToMove == WHITE ? " w " : " b ");
+        if (castlingRights == 0) sb.append('-');
+        if ((castlingRights & WHITE_SHORT) != 0) sb.append('K');
+        if ((castlingRights & WHITE_LONG) != 0) sb.append('Q');
+        if ((castlingRights & BLACK_SHORT) != 0) sb.append('k');
+        if ((castlingRights & BLACK_LONG) != 0) sb.append('q');
+
+        sb.append(' ').append(enPassantSquare == EMPTY ? "-" : Move.squareName(enPassantSquare));
+        sb.append(' ').append(elixir[WHITE]).append(' ').append(elixir[BLACK]);
+        sb.append(' ').append(elixirMultiplier).append(' ');
+
+        if (bombCount == 0) sb.append('-');
+        for (int i = 0; i < bombCount; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(Move.squareName(bombSquare[i])).append(bombOwner[i] == WHITE ? 'w' : 'b').append(bombTimer[i]);
+        }
+        return sb.toString();
+    }
+
+    // ===== squares and pieces =====
+
+    /**
+     * get the square index for a row and column
+     * @return int the square, or EMPTY if off the board
+     */
+    public static int square(int row, int col) {
+        if (row < 0 || row >= ROWS || col < 0 || col >= COLS) return EMPTY;
+        return row * COLS + col;
+    }
+
+    public static int rowOf(int sq) {
+        return sq / COLS;
+    }
+
+    public static int colOf(int sq) {
+        return sq % COLS;
+    }
+
+    /**
+     * forward direction along the rows for a colour (white moves towards row 0)
+     */
+    public static int forward(int color) {
+        return color == WHITE ? -1 : 1;
+    }
+
+    /**
+     * row a recruit of this colour promotes on
+     */
+    public static int promotionRow(int color) {
+        return color == WHITE ? 0 : ROWS - 1;
+    }
+
+    /**
+     * elixir cost of the ability of a piece type
+     */
+    public static int abilityCost(int type) {
+        return ABILITY_COST[type];
+    }
+
+    /**
+     * elixir cost of promoting a recruit into a piece type
+     * @return int the cost, or 0 if the type is not a promotion option
+     */
+    public static int promotionCost(int type) {
+        return PROMOTION_COST[type];
+    }
+
+    /**
+     * Place a piece on an empty square (used for setting up positions)
+     * Castling rights are not granted; set them with setCastlingRights
+     */
+    public void put(int sq, int type, int color) {
+        clearSquare(sq);
+        setSquare(sq, type, color);
+        updateResult();
+    }
+
+    /**
+     * Remove whatever is on a square (used for setting up positions)
+     */
+    public void remove(int sq) {
+        clearSquare(sq);
+        updateResult();
+    }
+
+    public int typeAt(int sq) {
+        return types[sq];
+    }
+
+    public int colorAt(int sq) {
+        return colors[sq];
+    }
+
+    public boolean isEmpty(int sq) {
+        return types[sq] == EMPTY;
+    }
+
+    /**
+     * Low level square write, every board change goes through here or clearSquare
+     * so piece counts, castling rights, the hash and the piece-square totals stay in sync
+     */
+    private void setSquare(int sq, int type, int color) {
+        record(sq);
+        hash ^= Zobrist.piece(color, type, sq);
+        pieceSquareScore[color] += Evaluation.pieceSquare(color, type, sq);
+        long bit = 1L << sq;
+        types[sq] = type;
+        colors[sq] = color;
+        pieces[color][type] |= bit;
+        colorOccupancy[color] |= bit;
+        occupied |= bit;
+        if (type != SKELETON) armyCount[color]++;
+    }
+
+    private void clearSquare(int sq) {
+        int type = types[sq];
+        if (type == EMPTY) return;
+        record(sq);
+        long bit = 1L << sq;
+        int color = colors[sq];
+        hash ^= Zobrist.piece(color, type, sq);
+        pieceSquareScore[color] -= Evaluation.pieceSquare(color, type, sq);
+        if (type != SKELETON) armyCount[color]--;
+        pieces[color][type] &= ~bit;
+        colorOccupancy[color] &= ~bit;
+        occupied &= ~bit;
+        types[sq] = EMPTY;
+        colors[sq] = EMPTY;
+        int lost = castlingRights & castlingRightsFor(sq);
+        if (lost != 0) setCastlingRights(castlingRights & ~lost);
+    }
+
+    /**
+     * write a square's current contents to the journal while a move is being made
+     */
+    private void record(int sq) {
+        if (undoDepth == 0) return;
+        if (journalSize == journal.length) journal = Arrays.copyOf(journal, journal.length * 2);
+        journal[journalSize++] = sq | ((types[sq] + 1) << 6) | ((colors[sq] + 1) << 9);
+    }
+
+    /**
+     * castling rights that depend on a square staying untouched
+     */
+    private static int castlingRightsFor(int sq) {
+        switch (sq) {
+            case 56: return WHITE_LONG;
+            case 63: return WHITE_SHORT;
+            case 60: return WHITE_LONG | WHITE_SHORT;
+            case 0: return BLACK_LONG;
+            case 7: return BLACK_SHORT;
+            case 4: return BLACK_LONG | BLACK_SHORT;
+            default: return 0;
+        }
+    }
+
+    // ===== move rules =====
+
+    /**
+     * Check if the piece on a square may move to a target square
+     *
+     * @param from square of the moving piece
+     * @param to target square
+     * @param spear true if the recruit's spear ability is active (may capture straight ahead)
+     * @return true if the move is valid
+     */
+    public boolean isValidMove(int from, int to, boolean spear) {
+        return (getValidTargets(from, spear) & (1L << to)) != 0;
+    }
+
+    /**
+     * Every square the piece on a square may move to, as a bitboard
+     * Mirrors the rules each Piece actor used to check block by block
+     *
+     * @param from square of the moving piece
+     * @param spear true if the recruit's spear ability is active (may capture straight ahead)
+     * @return long mask of valid target squares
+     */
+    public long getValidTargets(int from, boolean spear) {
+        int type = types[from];
+        if (type == EMPTY) return 0L;
+        int color = colors[from];
+        long own = colorOccupancy[color];
+        long enemy = colorOccupancy[1 - color];
+
+        switch (type) {
+            case DARK_PRINCE:
+                return Bitboards.orthogonalAttacks(from, occupied) & ~own;
+
+            case MUSKETEER:
+                return Bitboards.diagonalAttacks(from, occupied) & ~own;
+
+            case WITCH:
+                return (Bitboards.orthogonalAttacks(from, occupied) | Bitboards.diagonalAttacks(from, occupied)) & ~own;
+
+            case KNIGHT:
+                return Bitboards.KNIGHT[from] & ~own;
+
+            case ROYAL_GIANT:
+                return (Bitboards.KING[from] & ~own) | castleTargets(from);
+
+            case SKELETON:
+                return (Bitboards.DIAGONAL_NEIGHBORS[from] & enemy) | (stepAhead(from, color) & ~occupied);
+
+            case ROYAL_RECRUITS:
+                long ahead = stepAhead(from, color);
+                long targets = ahead & ~occupied;
+
+                // first move can move two squares
+                if (targets != 0 && rowOf(from) == promotionRow(1 - color) + forward(color)) {
+                    targets |= stepAhead(Long.numberOfTrailingZeros(ahead), color) & ~occupied;
+                }
+
+                targets |= Bitboards.RECRUIT_CAPTURES[color][from] & enemy;
+                if (spear) targets |= ahead & enemy;
+
+                // en passant capture
+                if (enPassantSquare != EMPTY && enPassantColor != color) {
+                    targets |= Bitboards.RECRUIT_CAPTURES[color][from] & (1L << enPassantSquare);
+                }
+                return targets;
+        }
+        return 0L;
+    }
+
+    /**
+     * the square straight ahead of a piece as a mask, 0 off the board
+     */
+    private static long stepAhead(int sq, int color) {
+        return Bitboards.bit(rowOf(sq) + forward(color), colOf(sq));
+    }
+
+    /**
+     * squares a royal giant can castle onto
+     */
+    private long castleTargets(int from) {
+        long targets = 0L;
+        if (colOf(from) + 2 < COLS && canCastle(from, from + 2)) targets |= 1L << (from + 2);
+        if (colOf(from) - 2 >= 0 && canCastle(from, from - 2)) targets |= 1L << (from - 2);
+        return targets;
+    }
+
+    /**
+     * check if a royal giant move two squares sideways is a legal castle
+     */
+    private boolean canCastle(int from, int to) {
+        int color = colors[from];
+        int rookSq = castleRookSquare(from, to);
+        int right = castlingRightsFor(rookSq) & castlingRightsFor(from);
+        if ((castlingRights & right) == 0) return false;
+        if (types[rookSq] != DARK_PRINCE || colors[rookSq] != color) return false;
+        return isPathClear(from, rookSq);
+    }
+
+    /**
+     * square of the dark prince taking part in a castle
+     */
+    private static int castleRookSquare(int from, int to) {
+        return square(rowOf(from), to > from ? COLS - 1 : 0);
+    }
+
+    /**
+     * check if every square strictly between two squares on a line is empty
+     */
+    public boolean isPathClear(int from, int to) {
+        return (Bitboards.BETWEEN[from][to] & occupied) == 0;
+    }
+
+    // ===== actions =====
+
+    /**
+     * Move a piece, applying captures, en passant, castling and the dark prince charge
+     * Does not promote or end the turn
+     *
+     * @param from square of the moving piece
+     * @param to target square
+     * @param charge true if the dark prince charge is active (splash on capture)
+     * @return true if something was captured
+     */
+    public boolean movePiece(int from, int to, boolean charge) {
+        int type = types[from];
+        int color = colors[from];
+        boolean captured = types[to] != EMPTY;
+
+        // en passant capture
+        if (type == ROYAL_RECRUITS && to == enPassantSquare && enPassantColor != color && !captured) {
+            clearSquare(enPassantVictim);
+            captured = true;
+        }
+
+        // castling moves the dark prince next to the royal giant
+        if (type == ROYAL_GIANT && rowOf(from) == rowOf(to) && Math.abs(to - from) == 2) {
+            int rookSq = castleRookSquare(from, to);
+            int rookTarget = (from + to) / 2;
+            clearSquare(rookSq);
+            setSquare(rookTarget, DARK_PRINCE, color);
+        }
+
+        clearSquare(to);
+        clearSquare(from);
+        setSquare(to, type, color);
+
+        // a double step leaves the skipped square open to en passant
+        if (type == ROYAL_RECRUITS && Math.abs(rowOf(to) - rowOf(from)) == 2) {
+            setEnPassant((from + to) / 2, to, color);
+        }
+
+        // dark prince splash damage
+        if (type == DARK_PRINCE && charge && captured) {
+            splash(to, color);
+        }
+
+        updateResult();
+        return captured;
+    }
+
+    /**
+     * remove enemy pieces orthogonally adjacent to a square (dark prince charge)
+     */
+    private void splash(int sq, int color) {
+        clearSquares(Bitboards.ORTHOGONAL_NEIGHBORS[sq] & colorOccupancy[1 - color]);
+    }
+
+    /**
+     * clear every square set in a mask
+     */
+    private void clearSquares(long mask) {
+        for (long m = mask; m != 0; m &= m - 1) {
+            clearSquare(Long.numberOfTrailingZeros(m));
+        }
+    }
+
+    /**
+     * Turn the recruit on a square into another piece type
+     * Elixir is spent separately through spendElixir
+     */
+    public void promote(int sq, int newType) {
+        int color = colors[sq];
+        clearSquare(sq);
+        setSquare(sq, newType, color);
+        updateResult();
+    }
+
+    /**
+     * Knight ability: slash the three squares in front of the knight
+     * Hits pieces of both colours
+     */
+    public void knightSlash(int sq) {
+        clearSquares(Bitboards.SLASH[colors[sq]][sq] & occupied);
+        updateResult();
+    }
+
+    /**
+     * Musketeer ability: shoot straight ahead, removing the first piece hit if it is an enemy
+     *
+     * @return int the square of the first piece in the line of fire, or EMPTY if none
+     */
+    public int snipe(int sq) {
+        int color = colors[sq];
+        int target = snipeTarget(sq);
+        if (target != EMPTY && colors[target] != color) clearSquare(target);
+        updateResult();
+        return target;
+    }
+
+    /**
+     * first occupied square straight ahead of a piece
+     * @return int the square, or EMPTY if the line is clear
+     */
+    public int snipeTarget(int sq) {
+        return Bitboards.firstAhead(colors[sq], sq, occupied);
+    }
+
+    /**
+     * Witch ability: summon skeletons on the empty orthogonally adjacent squares
+     */
+    public void summonSkeletons(int sq) {
+        int color = colors[sq];
+        for (long m = Bitboards.ORTHOGONAL_NEIGHBORS[sq] & ~occupied; m != 0; m &= m - 1) {
+            setSquare(Long.numberOfTrailingZeros(m), SKELETON, color);
+        }
+    }
+
+    /**
+     * Royal giant ability: plant a bomb that explodes after BOMB_FUSE turns
+     *
+     * @param target square the bomb is planted on
+     * @param owner colour of the player planting it
+     */
+    public void plantBomb(int target, int owner) {
+        if (bombCount == MAX_BOMBS) return;
+        bombSquare[bombCount] = target;
+        bombOwner[bombCount] = owner;
+        bombTimer[bombCount] = BOMB_FUSE;
+        bombCount++;
+        hash ^= Zobrist.bomb(target, owner, BOMB_FUSE);
+    }
+
+    /**
+     * change the turns left on a pending bomb (used for setting up positions)
+     */
+    private void setBombTimer(int i, int timer) {
+        hash ^= Zobrist.bomb(bombSquare[i], bombOwner[i], bombTimer[i]);
+        bombTimer[i] = timer;
+        hash ^= Zobrist.bomb(bombSquare[i], bombOwner[i], timer);
+    }
+
+    /**
+     * blow up a bomb, removing enemy pieces in the 3x3 area around it
+     */
+    private void explode(int sq, int owner) {
+        clearSquares(Bitboards.BLAST[sq] & colorOccupancy[1 - owner]);
+    }
+
+    /**
+     * Spend elixir for the given colour (never goes below 0)
+     */
+    public void spendElixir(int color, int amount) {
+        setElixir(color, elixir[color] - amount);
+    }
+
+    /**
+     * End the current turn
+     * Awards elixir to the player who just moved, expires en passant,
+     * hands the move to the other side and counts down the bombs
+     */
+    public void endTurn() {
+        int mover = sideToMove;
+        plyCount++;
+
+        // an en passant chance only lasts for the opponent's turn
+        if (enPassantColor != EMPTY && enPassantColor != mover) {
+            setEnPassant(EMPTY, EMPTY, EMPTY);
+        }
+
+        setElixir(mover, elixir[mover] + elixirMultiplier);
+        setSideToMove(1 - mover);
+
+        // count down bombs, exploding the ones that run out
+        int kept = 0;
+        for (int i = 0; i < bombCount; i++) {
+            setBombTimer(i, bombTimer[i] - 1);
+            if (bombTimer[i] <= 0) {
+                explode(bombSquare[i], bombOwner[i]);
+            }
+            else {
+                bombSquare[kept] = bombSquare[i];
+                bombOwner[kept] = bombOwner[i];
+                bombTimer[kept] = bombTimer[i];
+                kept++;
+            }
+        }
+        bombCount = kept;
+
+        updateResult();
+    }
+
+    /**
+     * Recompute the result from the army counts
+     * A side with no pieces left loses, and it is a draw when both sides are down to one
+     */
+    private void updateResult() {
+        int white = armyCount[WHITE];
+        int black = armyCount[BLACK];
+        if (white == 0 || black == 0) {
+            result = white > 0 ? WHITE_WINS : BLACK_WINS;
+        }
+        else if (white == 1 && black == 1) {
+            result = DRAW;
+        }
+        else {
+            result = ONGOING;
+        }
+    }
+
+    // ===== make / unmake =====
+
+    /**
+     * Play a packed move for the side to move, spending its elixir and ending the turn
+     * The move is assumed to come from MoveGenerator for this position
+     *
+     * @param move the packed move (see Move)
+     */
+    public void makeMove(int move) {
+        saveUndo();
+        applyMove(move);
+        endTurn();
+    }
+
+    /**
+     * Apply a packed move for the side to move, spending its elixir, without ending the turn
+     * (GridWorld plays computer moves through this and then ends the turn itself)
+     *
+     * @param move the packed move (see Move)
+     */
+    public void applyMove(int move) {
+        int side = sideToMove;
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int kind = Move.kind(move);
+        int promotion = Move.promotion(move);
+
+        if (Move.isAbility(move)) spendElixir(side, abilityCost(types[from]));
+
+        switch (kind) {
+            case Move.NORMAL:
+            case Move.CASTLE:
+            case Move.EN_PASSANT:
+            case Move.SPEAR:
+                movePiece(from, to, false);
+                if (promotion != EMPTY) {
+                    spendElixir(side, promotionCost(promotion));
+                    promote(to, promotion);
+                }
+                break;
+            case Move.CHARGE:
+                movePiece(from, to, true);
+                break;
+            case Move.SLASH:
+                knightSlash(from);
+                break;
+            case Move.SNIPE:
+                snipe(from);
+                break;
+            case Move.SUMMON:
+                summonSkeletons(from);
+                break;
+            case Move.BOMB:
+                plantBomb(to, side);
+                break;
+            case Move.PROMOTE:
+                spendElixir(side, promotionCost(promotion));
+                promote(from, promotion);
+                break;
+            case Move.PASS:
+                break;
+        }
+    }
+
+    /**
+     * Take back the last move played with makeMove
+     */
+    public void unmakeMove() {
+        undoDepth--;
+
+        // put back every overwritten square, newest first
+        int start = undoJournalStart[undoDepth];
+        int depth = undoDepth;
+        undoDepth = 0;
+        while (journalSize > start) {
+            int entry = journal[--journalSize];
+            int sq = entry & 63;
+            int type = ((entry >>> 6) & 7) - 1;
+            int color = ((entry >>> 9) & 3) - 1;
+            clearSquare(sq);
+            if (type != EMPTY) setSquare(sq, type, color);
+        }
+        undoDepth = depth;
+
+        hash = undoHash[undoDepth];
+        int base = undoDepth * SAVED_SCALARS;
+        sideToMove = undoScalars[base];
+        elixir[WHITE] = undoScalars[base + 1];
+        elixir[BLACK] = undoScalars[base + 2];
+        castlingRights = undoScalars[base + 3];
+        enPassantSquare = undoScalars[base + 4];
+        enPassantVictim = undoScalars[base + 5];
+        enPassantColor = undoScalars[base + 6];
+        result = undoScalars[base + 7];
+        plyCount = undoScalars[base + 8];
+        bombCount = undoScalars[base + 9];
+
+        int bombBase = undoDepth * MAX_BOMBS * 3;
+        for (int i = 0; i < bombCount; i++) {
+            bombSquare[i] = undoBombs[bombBase + i * 3];
+            bombOwner[i] = undoBombs[bombBase + i * 3 + 1];
+            bombTimer[i] = undoBombs[bombBase + i * 3 + 2];
+        }
+    }
+
+    /**
+     * push the scalar state and journal position for the move about to be made
+     */
+    private void saveUndo() {
+        if (undoDepth == undoJournalStart.length) {
+            int capacity = undoDepth * 2;
+            undoJournalStart = Arrays.copyOf(undoJournalStart, capacity);
+            undoScalars = Arrays.copyOf(undoScalars, capacity * SAVED_SCALARS);
+            undoBombs = Arrays.copyOf(undoBombs, capacity * MAX_BOMBS * 3);
+            undoHash = Arrays.copyOf(undoHash, capacity);
+        }
+
+        undoJournalStart[undoDepth] = journalSize;
+        undoHash[undoDepth] = hash;
+
+        int base = undoDepth * SAVED_SCALARS;
+        undoScalars[base] = sideToMove;
+        undoScalars[base + 1] = elixir[WHITE];
+        undoScalars[base + 2] = elixir[BLACK];
+        undoScalars[base + 3] = castlingRights;
+        undoScalars[base + 4] = enPassantSquare;
+        undoScalars[base + 5] = enPassantVictim;
+        undoScalars[base + 6] = enPassantColor;
+        undoScalars[base + 7] = result;
+        undoScalars[base + 8] = plyCount;
+        undoScalars[base + 9] = bombCount;
+
+        int bombBase = undoDepth * MAX_BOMBS * 3;
+        for (int i = 0; i < bombCount; i++) {
+            undoBombs[bombBase + i * 3] = bombSquare[i];
+            undoBombs[bombBase + i * 3 + 1] = bombOwner[i];
+            undoBombs[bombBase + i * 3 + 2] = bombTimer[i];
+        }
+
+        undoDepth++;
+    }
+
+    /**
+     * Remember the position a turn started from when the turn was played piece by piece rather
+     * than with makeMove (GridWorld's turns), so isRepetition still sees it
+     * The turn cannot be taken back with unmakeMove.
+     *
+     * @param startHash getHash() from before the turn changed anything
+     */
+    public void addToHistory(long startHash) {
+        if (historySize == history.length) history = Arrays.copyOf(history, historySize * 2);
+        history[historySize++] = startHash;
+    }
+
+    /**
+     * @return int number of moves that can be taken back with unmakeMove
+     */
+    public int getUndoDepth() {
+        return undoDepth;
+    }
+
+    // ===== hashing =====
+
+    /**
+     * @return long the Zobrist hash of this position, kept up to date incrementally
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Work out the Zobrist hash from scratch (for checking the incremental one)
+     */
+    public long computeHash() {
+        long key = Zobrist.side(sideToMove) ^ Zobrist.castling(castlingRights) ^ Zobrist.enPassant(enPassantSquare);
+        key ^= Zobrist.elixir(WHITE, elixir[WHITE]) ^ Zobrist.elixir(BLACK, elixir[BLACK]);
+        for (int sq = 0; sq < SQUARES; sq++) {
+            if (types[sq] != EMPTY) key ^= Zobrist.piece(colors[sq], types[sq], sq);
+        }
+        for (int i = 0; i < bombCount; i++) {
+            key ^= Zobrist.bomb(bombSquare[i], bombOwner[i], bombTimer[i]);
+        }
+        return key;
+    }
+
+    /**
+     * check if this position already came up earlier in the game, in the turns kept with
+     * addToHistory or the moves played with makeMove
+     */
+    public boolean isRepetition() {
+        for (int i = historySize + undoDepth - 2; i >= 0; i -= 2) {
+            long earlier = i >= historySize ? undoHash[i - historySize] : history[i];
+            if (earlier == hash) return true;
+        }
+        return false;
+    }
+
+    // ===== accessors =====
+
+    /**
+     * @return long bitboard of one colour's pieces of one type
+     */
+    public long getPieces(int color, int type) {
+        return pieces[color][type];
+    }
+
+    /**
+     * @return long bitboard of every piece of one colour
+     */
+    public long getOccupancy(int color) {
+        return colorOccupancy[color];
+    }
+
+    /**
+     * @return long bitboard of every occupied square
+     */
+    public long getOccupied() {
+        return occupied;
+    }
+
+    public int getSideToMove() {
+        return sideToMove;
+    }
+
+    public void setSideToMove(int color) {
+        hash ^= Zobrist.side(sideToMove) ^ Zobrist.side(color);
+        sideToMove = color;
+    }
+
+    public int getElixir(int color) {
+        return elixir[color];
+    }
+
+    public void setElixir(int color, int amount) {
+        int clamped = Math.max(0, Math.min(MAX_ELIXIR, amount));
+        hash ^= Zobrist.elixir(color, elixir[color]) ^ Zobrist.elixir(color, clamped);
+        elixir[color] = clamped;
+    }
+
+    public int getElixirMultiplier() {
+        return elixirMultiplier;
+    }
+
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public void setCastlingRights(int rights) {
+        hash ^= Zobrist.castling(castlingRights) ^ Zobrist.castling(rights);
+        castlingRights = rights;
+    }
+
+    /**
+     * set the en passant square along with the recruit that can be taken and its colour
+     */
+    private void setEnPassant(int sq, int victim, int color) {
+        hash ^= Zobrist.enPassant(enPassantSquare) ^ Zobrist.enPassant(sq);
+        enPassantSquare = sq;
+        enPassantVictim = victim;
+        enPassantColor = color;
+    }
+
+    /**
+     * @return int the square a recruit can capture en passant onto, or EMPTY
+     */
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    /**
+     * @return int the square of the recruit that can be captured en passant, or EMPTY
+     */
+    public int getEnPassantVictim() {
+        return enPassantVictim;
+    }
+
+    public int getBombCount() {
+        return bombCount;
+    }
+
+    public int getBombSquare(int i) {
+        return bombSquare[i];
+    }
+
+    public int getBombOwner(int i) {
+        return bombOwner[i];
+    }
+
+    public int getBombTimer(int i) {
+        return bombTimer[i];
+    }
+
+    /**
+     * @return int material plus piece-square value of a colour's pieces, kept up to date
+     * as pieces move (see Evaluation)
+     */
+    public int getPieceSquareScore(int color) {
+        return pieceSquareScore[color];
+    }
+
+    /**
+     * number of pieces a colour has that count towards winning (skeletons excluded)
+     */
+    public int getArmyCount(int color) {
+        return armyCount[color];
+    }
+
+    /**
+     * @return int ONGOING, WHITE_WINS, BLACK_WINS or DRAW
+     */
+    public int getResult() {
+        return result;
+    }
+
+    public boolean isGameOver() {
+        return result != ONGOING;
+    }
+
+    /**
+     * @return int number of turns ended so far
+     */
+    public int getPlyCount() {
+        return plyCount;
+    }
+}
@@ -1,20 +1,52 @@
 import greenfoot.*; // (World, Actor, GreenfootImage, Greenfoot and MouseInfo)
+import java.awt.FontMetrics;
+import java.awt.image.BufferedImage;
 
 /**
  * Timer that counts down to establish a time limit for the game
  * Both white and black have their own timer
  * When a player plays a move, their turn ends and the next players automatically starts
+ * Under 10 seconds the clock shows tenths of a second
+ * 
+ * The clock is drawn from cached pieces instead of drawing its text each time: the digits and
+ * separators are drawn once in both colours (shared by both timers), and each timer draws its
+ * "WHITE: " or "BLACK: " prefix once. Each timer keeps one image and redraws only the
+ * characters that changed, so counting down never allocates.
  * 
  * @author Owen Lee
  */
 
 public class GameTimer extends Actor
 {
+    private static final int WIDTH = 140;
+    private static final int HEIGHT = 40;
+    private static final int TEXT_X = 5;
+    private static final int BASELINE = 28;
+    private static final int FONT_SIZE = 20;
+    private static final Color BACKGROUND = new Color(40, 40, 40);
+    
+    // tenths of a second are shown below this
+    private static final long TENTHS_BELOW_MILLIS = 10000;
+    
+    // cached characters, with their widths in the timer font, drawn on [0] white and [1] green
+    private static final String GLYPHS = "0123456789:.";
+    private static int[] glyphWidths;
+    private static GreenfootImage[][] glyphs;
+    
     private int timeLeft;
     private int frameCount = 0;
     private String player; // white or black
     private boolean isActive = false;
     
+    // the image shown, its prefix in both colours, and the text it currently shows
+    private GreenfootImage canvas;
+    private GreenfootImage[] prefixes;
+    private int prefixWidth;
+    private char[] text = new char[12];
+    private char[] shown = new char[12];
+    private int shownLength = -1;
+    private boolean shownActive;
+    
     /**
      * Creates the timer
      * 
@@ -25,6 +57,13 @@ public class GameTimer extends Actor
     {
         this.player = player;
         this.timeLeft = startingTime;
+        
+        if (glyphs == null) drawGlyphs();
+        String prefix = player + ": ";
+        prefixWidth = metrics().stringWidth(prefix);
+        prefixes = new GreenfootImage[] { drawText(prefix, prefixWidth, Color.WHITE), drawText(prefix, prefixWidth, Color.GREEN) };
+        canvas = new GreenfootImage(WIDTH, HEIGHT);
+        setImage(canvas);
         updateDisplay();
     }
     
@@ -40,6 +79,9 @@ public class GameTimer extends Actor
         
         frameCount++;
         
+        // tenths change every few frames
+        if (getMillisLeft() < TENTHS_BELOW_MILLIS) updateDisplay();
+        
         // Every 60 frames = 1 second
         if (frameCount >= 60)
         {
@@ -84,25 +126,99 @@ public class GameTimer extends Actor
     
     private void updateDisplay()
     {
-        GreenfootImage img = new GreenfootImage(140, 40);
-        
-        // Background
-        img.setColor(new Color(40, 40, 40));
-        img.fillRect(0, 0, 200, 40);
+        int length = formatTime(text);
         
         // Timer text - GREEN if active, WHITE if not
-        img.setColor(isActive ? Color.GREEN : Color.WHITE);
-        img.setFont(new Font("Arial", true, false, 20));
-        img.drawString(player + ": " + formatTime(timeLeft), 5, 28);
+        int colour = isActive ? 1 : 0;
+        
+        // a new colour or layout redraws everything, otherwise only the characters that changed
+        boolean redraw = length != shownLength || isActive != shownActive;
+        if (redraw)
+        {
+            canvas.setColor(BACKGROUND);
+            canvas.fillRect(0, 0, WIDTH, HEIGHT);
+            canvas.drawImage(prefixes[colour], TEXT_X, 0);
+        }
+        
+        int x = TEXT_X + prefixWidth;
+        for (int i = 0; i < length; i++)
+        {
+            int glyph = GLYPHS.indexOf(text[i]);
+            if (redraw || text[i] != shown[i]) canvas.drawImage(glyphs[colour][glyph], x, 0);
+            x += glyphWidths[glyph];
+            shown[i] = text[i];
+        }
+        shownLength = length;
+        shownActive = isActive;
+    }
+    
+    /**
+     * write the time left as m:ss, or s.t under 10 seconds
+     * @return int number of characters written
+     */
+    private int formatTime(char[] out)
+    {
+        long millis = getMillisLeft();
+        if (millis < TENTHS_BELOW_MILLIS)
+        {
+            int tenths = (int) (millis / 100);
+            out[0] = (char) ('0' + tenths / 10);
+            out[1] = '.';
+            out[2] = (char) ('0' + tenths % 10);
+            return 3;
+        }
         
-        setImage(img);
+        int minutes = timeLeft / 60;
+        int secs = timeLeft % 60;
+        int length = 0;
+        for (int place = minutes >= 100 ? 100 : minutes >= 10 ? 10 : 1; place > 0; place /= 10)
+        {
+            out[length++] = (char) ('0' + minutes / place % 10);
+        }
+        out[length++] = ':';
+        out[length++] = (char) ('0' + secs / 10);
+        out[length++] = (char) ('0' + secs % 10);
+        return length;
     }
     
-    private String formatTime(int seconds)
+    /**
+     * draw each character of the clock in both colours
+     */
+    private static void drawGlyphs()
+    {
+        FontMetrics metrics = metrics();
+        glyphWidths = new int[GLYPHS.length()];
+        glyphs = new GreenfootImage[2][GLYPHS.length()];
+        for (int i = 0; i < GLYPHS.length(); i++)
+        {
+            String glyph = GLYPHS.substring(i, i + 1);
+            glyphWidths[i] = metrics.stringWidth(glyph);
+            glyphs[0][i] = drawText(glyph, glyphWidths[i], Color.WHITE);
+            glyphs[1][i] = drawText(glyph, glyphWidths[i], Color.GREEN);
+        }
+    }
+    
+    /**
+     * text on the timer background, as tall as the timer and as wide as the text
+     */
+    private static GreenfootImage drawText(String text, int width, Color color)
     {
-        int minutes = seconds / 60;
-        int secs = seconds % 60;
-        return String.format("%d:%02d", minutes, secs);
+        GreenfootImage img = new GreenfootImage(Math.max(1, width), HEIGHT);
+        img.setColor(BACKGROUND);
+        img.fill();
+        img.setColor(color);
+        img.setFont(new Font("Arial", true, false, FONT_SIZE));
+        img.drawString(text, 0, BASELINE);
+        return img;
+    }
+    
+    /**
+     * widths of text in the timer font, the same font Greenfoot draws it with
+     */
+    private static FontMetrics metrics()
+    {
+        java.awt.Font font = new java.awt.Font("Arial", java.awt.Font.BOLD, FONT_SIZE);
+        return new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics().getFontMetrics(font);
     }
     
     /**
@@ -114,6 +230,15 @@ public class GameTimer extends Actor
         return timeLeft;
     }
     
+    /**
+     * Get the time remaining on this timer, counting the frames of the current second
+     * @return time left in milliseconds
+     */
+    public long getMillisLeft()
+    {
+        return Math.max(0, timeLeft * 1000L - frameCount * 1000L / 60);
+    }
+    
     /**
      * Get the player this timer belongs to
      * @return "WHITE" or "BLACK"
@@ -8,7 +8,7 @@ import java.util.ArrayList;
  * 
  * Instructions
  *  White and black alternate turns and both have their own timer, if they run out of time, they lose
- *  (Our game is a 2 player game so we recommend you find friend or family to play with)
+ *  (Play against a friend, or turn on the computer opponent in the game setup)
  *  Each player gains elixir each round (amount depends on elixir multiplier chosen in settings)
  *  Each turn consists of two possible moves
  *      1. Move piece like in regular chess 
@@ -97,9 +97,14 @@ public class GridWorld extends World
     private Piece selectedPiece;
     private boolean promotionMenuActive;
     
-    // en passant tracking - stores the block that can be captured via en passant
-    private Block enPassantTarget;
-    private Piece enPassantVulnerablePawn;
+    // headless rules model (board, elixir, en passant, bombs, castling)
+    private GameState gameState;
+    
+    // game state hash when the current turn began, added to its history when the turn ends
+    private long turnStartHash;
+    
+    // computer opponent, or null when two people are playing
+    private AIPlayer computerPlayer;
     
     // Fade-in effect
     private FadeOverlay fadeOverlay;
@@ -169,82 +174,19 @@ public class GridWorld extends World
         whiteCapturedPieces = new ArrayList<>();
         blackCapturedPieces = new ArrayList<>();
         
-        // white pieces
-        Piece wDarkPrince1 = new Piece(Piece.PieceType.DARK_PRINCE, blockGrid[7][0], true);
-        addObject(wDarkPrince1, blockGrid[7][0].getX(), blockGrid[7][0].getY());
-        whitePieces.add(wDarkPrince1);
-    
-        Piece wDarkPrince2 = new Piece(Piece.PieceType.DARK_PRINCE, blockGrid[7][7], true);
-        addObject(wDarkPrince2, blockGrid[7][7].getX(), blockGrid[7][7].getY());
-        whitePieces.add(wDarkPrince2);
-        
-        Piece wMusketeer1 = new Piece(Piece.PieceType.MUSKETEER, blockGrid[7][2], true);
-        addObject(wMusketeer1, blockGrid[7][2].getX(), blockGrid[7][2].getY());
-        whitePieces.add(wMusketeer1);
-
-        Piece wMusketeer2 = new Piece(Piece.PieceType.MUSKETEER, blockGrid[7][5], true);
-        addObject(wMusketeer2, blockGrid[7][5].getX(), blockGrid[7][5].getY());
-        whitePieces.add(wMusketeer2);
-        
-        Piece wRoyalGiant = new Piece(Piece.PieceType.ROYAL_GIANT, blockGrid[7][4], true);
-        addObject(wRoyalGiant, blockGrid[7][4].getX(), blockGrid[7][4].getY());
-        whitePieces.add(wRoyalGiant);
-        
-        Piece wWitch = new Piece(Piece.PieceType.WITCH, blockGrid[7][3], true);
-        addObject(wWitch, blockGrid[7][3].getX(), blockGrid[7][3].getY());
-        whitePieces.add(wWitch);
+        // load every piece image now, so summoning and promoting never wait on it
+        SpriteCache.preload(Piece.size);
         
-        Piece wKnight1 = new Piece(Piece.PieceType.KNIGHT, blockGrid[7][1], true);
-        addObject(wKnight1, blockGrid[7][1].getX(), blockGrid[7][1].getY());
-        whitePieces.add(wKnight1);
-
-        Piece wKnight2 = new Piece(Piece.PieceType.KNIGHT, blockGrid[7][6], true);
-        addObject(wKnight2, blockGrid[7][6].getX(), blockGrid[7][6].getY());
-        whitePieces.add(wKnight2);
-
-        for (int i = 0; i < 8; i++) {
-            Piece recruit = new Piece(Piece.PieceType.ROYAL_RECRUITS, blockGrid[6][i], true);
-            addObject(recruit, blockGrid[6][i].getX(), blockGrid[6][i].getY());
-            whitePieces.add(recruit);
-        }
+        // game state the pieces render from, starting in the standard layout
+        gameState = GameState.standard(elixirMultiplier);
+        turnStartHash = gameState.getHash();
+        syncPieces();
         
-        // black pieces
-        Piece bDarkPrince1 = new Piece(Piece.PieceType.DARK_PRINCE, blockGrid[0][0], false);
-        addObject(bDarkPrince1, blockGrid[0][0].getX(), blockGrid[0][0].getY());
-        blackPieces.add(bDarkPrince1);
-        
-        Piece bDarkPrince2 = new Piece(Piece.PieceType.DARK_PRINCE, blockGrid[0][7], false);
-        addObject(bDarkPrince2, blockGrid[0][7].getX(), blockGrid[0][0].getY());
-        blackPieces.add(bDarkPrince2);
-        
-        Piece bMusketeer1 = new Piece(Piece.PieceType.MUSKETEER, blockGrid[0][2], false);
-        addObject(bMusketeer1, blockGrid[0][2].getX(), blockGrid[0][2].getY());
-        blackPieces.add(bMusketeer1);
-
-        Piece bMusketeer2 = new Piece(Piece.PieceType.MUSKETEER, blockGrid[0][5], false);
-        addObject(bMusketeer2, blockGrid[0][5].getX(), blockGrid[0][5].getY());
-        blackPieces.add(bMusketeer2);
-        
-        Piece bRoyalGiant = new Piece(Piece.PieceType.ROYAL_GIANT, blockGrid[0][4], false);
-        addObject(bRoyalGiant, blockGrid[0][4].getX(), blockGrid[0][4].getY());
-        blackPieces.add(bRoyalGiant);
-        
-        Piece bWitch = new Piece(Piece.PieceType.WITCH, blockGrid[0][3], false);
-        addObject(bWitch, blockGrid[0][3].getX(), blockGrid[0][3].getY());
-        blackPieces.add(bWitch);
-        
-        Piece bKnight1 = new Piece(Piece.PieceType.KNIGHT, blockGrid[0][1], false);
-        addObject(bKnight1, blockGrid[0][1].getX(), blockGrid[0][1].getY());
-        blackPieces.add(bKnight1);
-        
-        Piece bKnight2 = new Piece(Piece.PieceType.KNIGHT, blockGrid[0][6], false);
-        addObject(bKnight2, blockGrid[0][6].getX(), blockGrid[0][6].getY());
-        blackPieces.add(bKnight2);
-        
-        for (int i = 0; i < 8; i++) {
-            Piece recruit = new Piece(Piece.PieceType.ROYAL_RECRUITS, blockGrid[1][i], false);
-            addObject(recruit, blockGrid[1][i].getX(), blockGrid[1][i].getY());
-            blackPieces.add(recruit);
+        // the computer takes whichever side the player did not pick
+        GameSettings settings = GameSettings.getInstance();
+        if (settings.isVsComputer()) {
+            computerPlayer = new AIPlayer(settings.isWhiteSide() ? GameState.BLACK : GameState.WHITE,
+                settings.getSearchThreads());
         }
         
         // Add fade overlay on top of everything and play start sound
@@ -265,6 +207,85 @@ public class GridWorld extends World
             gameStartTime = System.currentTimeMillis();
             whiteTimer.setActive(true); // White goes first
         }
+        
+        if (gameStarted && computerPlayer != null) updateComputerPlayer();
+    }
+    
+    /**
+     * start the computer thinking when its turn comes, and play its move once it has one
+     */
+    private void updateComputerPlayer()
+    {
+        if (gameState.getSideToMove() != computerPlayer.getColor() || gameState.isGameOver()) return;
+        if (computerPlayer.isThinking()) return;
+        
+        int move = computerPlayer.takeMove();
+        if (move != Move.NONE) {
+            playMove(move);
+            // think on about the expected reply while the player decides
+            if (GameSettings.getInstance().isPondering()) computerPlayer.startPondering(gameState);
+            return;
+        }
+        
+        GameTimer timer = computerPlayer.getColor() == GameState.WHITE ? whiteTimer : blackTimer;
+        computerPlayer.startThinking(gameState, timer.getMillisLeft());
+    }
+    
+    /**
+     * check if a colour is played by the computer (its pieces ignore the mouse)
+     * @param isWhite true for white, false for black
+     * @return boolean true if the computer plays that colour
+     */
+    public boolean isComputerPlayer(boolean isWhite)
+    {
+        if (computerPlayer == null) return false;
+        return computerPlayer.getColor() == (isWhite ? GameState.WHITE : GameState.BLACK);
+    }
+    
+    /**
+     * Play a packed move for the side to move, with the same effects as a player's move,
+     * then end the turn. This is how the computer player moves.
+     * @param move the packed move (see Move), legal in the current position
+     */
+    public void playMove(int move)
+    {
+        boolean isWhite = gameState.getSideToMove() == GameState.WHITE;
+        Block from = getBlock(Move.from(move));
+        Block to = getBlock(Move.to(move));
+        
+        // effects go on before the state changes, while the pieces are still standing
+        switch (Move.kind(move)) {
+            case Move.SPEAR:
+                addObject(new SpearStrikeEffect(to.getX(), to.getY(), isWhite), to.getX(), to.getY());
+                break;
+            case Move.CHARGE:
+                addObject(new ChargeEffect(to.getX(), to.getY()), to.getX(), to.getY());
+                break;
+            case Move.SLASH:
+                addObject(new KnightSlashEffect(from.getX(), from.getY(), isWhite), from.getX(), from.getY());
+                break;
+            case Move.SUMMON:
+                addObject(new SummonEffect(from.getX(), from.getY()), from.getX(), from.getY());
+                break;
+            case Move.SNIPE:
+                int target = gameState.snipeTarget(Move.from(move));
+                if (target != GameState.EMPTY) {
+                    Block targetBlock = getBlock(target);
+                    addObject(new SnipeEffect(from.getX(), from.getY(), targetBlock.getX(), targetBlock.getY()),
+                        from.getX(), from.getY());
+                }
+                break;
+            case Move.BOMB:
+                addBombActor(to, isWhite);
+                break;
+        }
+        
+        gameState.applyMove(move);
+        if (Move.kind(move) != Move.BOMB) SoundManager.getInstance().playMove();
+        
+        syncPieces();
+        syncElixir();
+        endTurn();
     }
     
     /**
@@ -342,6 +363,7 @@ public class GridWorld extends World
      */
     private void endGame(String message) {
         //System.out.println("Game Over! " + message);
+        if (computerPlayer != null) computerPlayer.shutdown();
         whiteTimer.setActive(false);
         blackTimer.setActive(false);
         
@@ -394,18 +416,18 @@ public class GridWorld extends World
         // Increment turn count
         turnCount++;
         
-        if (enPassantVulnerablePawn != null) {
-            String currentPlayer = turnManager.getCurrentPlayer();
-            boolean enPassantPawnIsWhite = enPassantVulnerablePawn.checkIsWhite();
-
-            if ((currentPlayer.equals("WHITE") && !enPassantPawnIsWhite) ||
-                (currentPlayer.equals("BLACK") && enPassantPawnIsWhite)) {
-                clearEnPassant();
-            }
-        }
+        // keep the position the turn started from so the computer player sees repetitions,
+        // then award elixir, expire en passant and count down bombs in the game state
+        gameState.addToHistory(turnStartHash);
+        gameState.endTurn();
+        turnStartHash = gameState.getHash();
         
         turnManager.nextTurn();
         progressBombExplosions();
+        
+        // remove pieces caught in bomb explosions
+        syncPieces();
+        syncElixir();
 
         checkIfGameEnd();
         
@@ -420,39 +442,105 @@ public class GridWorld extends World
     }
     
     /**
-     * Set the en passant target block and vulnerable pawn.
-     * Called when a pawn moves two squares forward.
+     * Get the current en passant target block.
+     * 
+     * @return Block the block that is the target of en passant, or null if there is none
      */
-    public void setEnPassant(Block target, Piece pawn) {
-        this.enPassantTarget = target;
-        this.enPassantVulnerablePawn = pawn;
-        //System.out.println("[En Passant] Target set, pawn is " + (pawn.checkIsWhite() ? "WHITE" : "BLACK"));
+    public Block getEnPassantTarget() {
+        int sq = gameState.getEnPassantSquare();
+        return sq == GameState.EMPTY ? null : getBlock(sq);
     }
     
     /**
-     * Clear the en passant opportunity.
+     * Get the headless game state the pieces render from
+     * 
+     * @return GameState the game state
      */
-    public void clearEnPassant() {
-        this.enPassantTarget = null;
-        this.enPassantVulnerablePawn = null;
+    public GameState getGameState() {
+        return gameState;
     }
     
     /**
-     * Get the current en passant target block.
-     * 
-     * @return Block the block that is the target of en passant
+     * Bring the piece actors in line with the game state.
+     * Actors whose piece moved are relocated, new pieces (summons, promotions) get an actor,
+     * and actors whose piece is gone are removed as captures.
      */
-    public Block getEnPassantTarget() {
-        return enPassantTarget;
+    public void syncPieces() {
+        List<Piece> stale = new ArrayList<>();
+        
+        // pick up actors that no longer match their square
+        for (int sq = 0; sq < GameState.SQUARES; sq++) {
+            Block block = getBlock(sq);
+            Piece actor = block.currentPiece();
+            if (actor != null && !matchesState(actor, sq)) {
+                block.setPiece(null);
+                stale.add(actor);
+            }
+        }
+        
+        // fill squares that need an actor, reusing a moved actor when one matches
+        for (int sq = 0; sq < GameState.SQUARES; sq++) {
+            Block block = getBlock(sq);
+            if (block.currentPiece() != null || gameState.isEmpty(sq)) continue;
+            
+            Piece moved = null;
+            for (Piece actor : stale) {
+                if (matchesState(actor, sq)) {
+                    moved = actor;
+                    break;
+                }
+            }
+            
+            if (moved != null) {
+                stale.remove(moved);
+                moved.relocate(block);
+            }
+            else {
+                addPieceActor(block);
+            }
+        }
+        
+        // whatever is left was captured
+        for (Piece actor : stale) {
+            removeObject(actor);
+            actor.clearBlock();
+            removePieceFromList(actor);
+        }
     }
     
     /**
-     * Get the pawn that is vulnerable to en passant capture.
-     * 
-     * @return Piece the pawn that is vulnerable to en passant
+     * check if a piece actor shows what the game state has on a square
      */
-    public Piece getEnPassantVulnerablePawn() {
-        return enPassantVulnerablePawn;
+    private boolean matchesState(Piece actor, int sq) {
+        int type = gameState.typeAt(sq);
+        if (type == GameState.EMPTY) return false;
+        boolean isWhite = gameState.colorAt(sq) == GameState.WHITE;
+        return actor.getType().ordinal() == type && actor.checkIsWhite() == isWhite;
+    }
+    
+    /**
+     * create the actor for the piece the game state has on a block
+     * skeletons are summons and are not tracked in the piece lists
+     */
+    private void addPieceActor(Block block) {
+        int sq = block.getSquare();
+        Piece.PieceType type = Piece.PieceType.values()[gameState.typeAt(sq)];
+        boolean isWhite = gameState.colorAt(sq) == GameState.WHITE;
+        
+        Piece piece = new Piece(type, block, isWhite);
+        addObject(piece, block.getX(), block.getY());
+        
+        if (type == Piece.PieceType.SKELETON) return;
+        if (isWhite) whitePieces.add(piece);
+        else blackPieces.add(piece);
+    }
+    
+    /**
+     * update both elixir bars to the amounts in the game state
+     */
+    private void syncElixir() {
+        elixirBarWhite.setElixir(gameState.getElixir(GameState.WHITE));
+        elixirBarBlack.setElixir(gameState.getElixir(GameState.BLACK));
     }
     
     /**
@@ -496,6 +584,14 @@ public class GridWorld extends World
      * @param isWhite true if the bomb belongs to the white player, false for black.
      */
     public void addBomb(Block location, boolean isWhite) {
+        gameState.plantBomb(location.getSquare(), isWhite ? GameState.WHITE : GameState.BLACK);
+        addBombActor(location, isWhite);
+    }
+    
+    /**
+     * add the actor for a bomb the game state already holds
+     */
+    private void addBombActor(Block location, boolean isWhite) {
         Bomb bomb = new Bomb(location, isWhite);
         addObject(bomb, location.getX(), location.getY());
         bombs.add(bomb);
@@ -521,6 +617,15 @@ public class GridWorld extends World
         return blockGrid[x][y];
     }
     
+    /**
+     * Get the block for a game state square.
+     * @param square the square index (row * 8 + column).
+     * @return Block the Block on that square.
+     */
+    public Block getBlock(int square) {
+        return blockGrid[GameState.rowOf(square)][GameState.colOf(square)];
+    }
+    
     /**
      * get the currently selected piece
      * @return Piece the selected Piece, or null if none is selected.
@@ -544,7 +649,7 @@ public class GridWorld extends World
      * @return int the current elixir amount
      */
     public int getElixir(boolean isWhite) {
-        return isWhite ? elixirBarWhite.getElixir() : elixirBarBlack.getElixir();
+        return gameState.getElixir(isWhite ? GameState.WHITE : GameState.BLACK);
     }
     
     /**
@@ -552,8 +657,8 @@ public class GridWorld extends World
      * @param isWhite true for white player, false for black player
      */
     public void removeElixir(boolean isWhite, int amount) {
-        if (isWhite) elixirBarWhite.removeElixir(amount);  
-        else elixirBarBlack.removeElixir(amount);
+        gameState.spendElixir(isWhite ? GameState.WHITE : GameState.BLACK, amount);
+        syncElixir();
     }
     
     /**
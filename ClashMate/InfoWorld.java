@@ -47,7 +47,7 @@ public class InfoWorld extends MenuWorld
         
         try
         {
-            GreenfootImage img = new GreenfootImage("Background.png");
+            GreenfootImage img = new GreenfootImage(Atlas.get("Background.png"));
             img.scale(getWidth(), getHeight());
             bg.drawImage(img, 0, 0);
         }
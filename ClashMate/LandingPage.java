@@ -179,7 +179,7 @@ public class LandingPage extends MenuWorld
         bg.fill();
         
         // Load and scale the image smaller
-        GreenfootImage img = new GreenfootImage("Background.png");
+        GreenfootImage img = Atlas.get("Background.png");
         int x = 0;
         int y = 0;
         bg.drawImage(img, x, y);
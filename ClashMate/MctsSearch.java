@@ -0,0 +1,390 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Monte Carlo tree search engine, an alternative to the alpha-beta Search
+ * Elixir and bombs that go off turns later are hard to score statically, so instead of
+ * evaluating positions this plays them out and keeps the statistics in a tree.
+ *
+ * Every thread descends one shared tree, picking children by UCT, plays a random game out
+ * from the leaf and backs the result up the path. A thread passing through a node adds a
+ * virtual loss to it until its result comes back, which steers the other threads onto
+ * different lines instead of all piling into the same one.
+ *
+ * Playouts pick uniformly among the moves, except that the 64 bomb targets of a royal giant
+ * count as a single choice, and stop after PLAYOUT_PLIES with the material balance turned
+ * into a win chance.
+ *
+ * The tree is kept between searches: when the next search starts from a position the tree
+ * already reached (after our move and the reply), that subtree becomes the new root.
+ *
+ * Run on its own for a playouts/second report:
+ *     java MctsSearch [seconds]
+ *
+ * @author Saiful Shaik
+ * @version 2/16/2026
+ */
+public class MctsSearch
+{
+    // exploration constant for UCT
+    private static final double EXPLORATION = 1.4;
+
+    private static final int PLAYOUT_PLIES = 80;
+
+    // how fast the material balance turns into a sure win when a playout is cut off
+    private static final double EVAL_SCALE = 400.0;
+
+    private final int threads;
+    private final ExecutorService workers;
+
+    private Node root;
+    private volatile boolean stopped;
+    private long playouts;
+    private long elapsedNanos;
+
+    /**
+     * One position in the tree
+     * Statistics are written under the node's lock and read without it, a slightly stale
+     * read only nudges which child is tried next. A node's legal moves are listed when it is
+     * expanded, and the child for a move is created the first time it is tried, so a node
+     * visited only a few times holds only a few children. Selection does try every untried
+     * move before any other, so once a node with a royal giant has been visited often enough
+     * it does have a child for each of the 64 bomb targets (only playouts count them as one)
+     */
+    private static final class Node
+    {
+        final int move;       // move that led here
+        final int mover;      // colour that played it
+        final long hash;      // Zobrist hash of the position after it
+        Node parent;          // null for the root
+
+        volatile int[] moves;
+        volatile Node[] children;
+        volatile boolean terminal;
+
+        int visits;
+        int virtualLoss;
+        double wins;          // from the mover's point of view, draws count half
+
+        Node(Node parent, int move, int mover, long hash) {
+            this.parent = parent;
+            this.move = move;
+            this.mover = mover;
+            this.hash = hash;
+        }
+    }
+
+    /**
+     * @param threads number of threads to search with
+     */
+    public MctsSearch(int threads) {
+        this.threads = Math.max(1, threads);
+        workers = Executors.newWorkStealingPool(this.threads);
+    }
+
+    /**
+     * Find the best move for the side to move
+     *
+     * @param state position to search (not changed, each thread plays on a copy)
+     * @param millis time to search for
+     * @return int the most visited move, or Move.NONE if the game is over
+     */
+    public int search(GameState state, long millis) {
+        if (state.isGameOver()) return Move.NONE;
+        reuseOrCreateRoot(state);
+
+        stopped = false;
+        long start = System.nanoTime();
+        long deadline = start + millis * 1000000L;
+
+        Future<?>[] running = new Future<?>[threads];
+        long[] counts = new long[threads];
+        for (int t = 0; t < threads; t++) {
+            GameState copy = new GameState(state);
+            int index = t;
+            long seed = start + t;
+            running[t] = workers.submit(() -> {
+                counts[index] = runPlayouts(copy, deadline, new SplittableRandom(seed));
+            });
+        }
+
+        playouts = 0;
+        for (int t = 0; t < threads; t++) {
+            try {
+                running[t].get();
+            }
+            catch (Exception e) {
+                System.err.println("MCTS worker failed: " + e);
+            }
+            playouts += counts[t];
+        }
+        elapsedNanos = System.nanoTime() - start;
+
+        Node best = bestChild(root);
+        return best == null ? Move.NONE : best.move;
+    }
+
+    /**
+     * keep the part of the last tree below this position, or start a new tree
+     */
+    private void reuseOrCreateRoot(GameState state) {
+        long hash = state.getHash();
+        Node found = null;
+        if (root != null && root.hash == hash) found = root;
+        if (found == null && root != null && root.children != null) {
+            // our move, then the reply
+            for (Node child : root.children) {
+                if (child == null || child.children == null) continue;
+                for (Node grandchild : child.children) {
+                    if (grandchild != null && grandchild.hash == hash) found = grandchild;
+                }
+            }
+        }
+        if (found == null) {
+            found = new Node(null, Move.NONE, 1 - state.getSideToMove(), hash);
+        }
+        // cut it loose so the rest of the old tree can be collected
+        found.parent = null;
+        root = found;
+    }
+
+    /**
+     * one thread's loop: select, expand, play out and back up until the time runs out
+     * @return long playouts made
+     */
+    private long runPlayouts(GameState state, long deadline, SplittableRandom random) {
+        MoveList list = new MoveList();
+        long count = 0;
+        while (!stopped && System.nanoTime() < deadline) {
+            int depth = 0;
+            Node node = root;
+
+            // walk down by UCT until stepping onto a node no playout has been through yet
+            while (true) {
+                if (node.terminal || state.isGameOver()) {
+                    node.terminal = true;
+                    break;
+                }
+                if (node.moves == null) expand(node, state, list);
+                node = descend(node, state);
+                depth++;
+                if (node.visits == 0) break;
+            }
+
+            double whiteScore = playout(state, list, random);
+            backUp(node, whiteScore);
+
+            while (depth-- > 0) {
+                state.unmakeMove();
+            }
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * pick a child by UCT, counting virtual losses as visits that lost, and play its move
+     * The child is created the first time its move is picked
+     */
+    private static Node descend(Node node, GameState state) {
+        int[] moves = node.moves;
+        Node[] children = node.children;
+        double logVisits = Math.log(Math.max(1, node.visits + node.virtualLoss));
+
+        int best = 0;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < moves.length; i++) {
+            Node child = children[i];
+            if (child == null) {
+                // untried moves come first
+                best = i;
+                break;
+            }
+            int visits = child.visits + child.virtualLoss;
+            double value = visits == 0 ? Double.MAX_VALUE
+                : child.wins / visits + EXPLORATION * Math.sqrt(logVisits / visits);
+            if (value > bestValue) {
+                bestValue = value;
+                best = i;
+            }
+        }
+
+        int mover = state.getSideToMove();
+        state.makeMove(moves[best]);
+        Node child;
+        synchronized (node) {
+            child = children[best];
+            if (child == null) {
+                child = new Node(node, moves[best], mover, state.getHash());
+                children[best] = child;
+            }
+            child.virtualLoss++;
+        }
+        return child;
+    }
+
+    /**
+     * list a leaf's legal moves (only one thread does it, the rest see the result)
+     */
+    private static void expand(Node node, GameState state, MoveList list) {
+        synchronized (node) {
+            if (node.moves != null) return;
+            MoveGenerator.generate(state, list);
+            int[] moves = new int[list.size()];
+            for (int i = 0; i < moves.length; i++) {
+                moves[i] = list.get(i);
+            }
+            node.children = new Node[moves.length];
+            node.moves = moves;
+        }
+    }
+
+    /**
+     * add a playout result to every node on the path, taking back the virtual losses
+     * @param whiteScore 1 for a white win, 0 for a black win, in between for a draw or cut-off
+     */
+    private void backUp(Node leaf, double whiteScore) {
+        for (Node node = leaf; node != null; node = node.parent) {
+            double score = node.mover == GameState.WHITE ? whiteScore : 1 - whiteScore;
+            synchronized (node) {
+                node.visits++;
+                node.wins += score;
+                if (node.virtualLoss > 0) node.virtualLoss--;
+            }
+        }
+    }
+
+    /**
+     * play random moves until the game ends or the ply limit, then take the moves back
+     * @return double the result for white
+     */
+    private static double playout(GameState state, MoveList list, SplittableRandom random) {
+        int plies = 0;
+        while (!state.isGameOver() && plies < PLAYOUT_PLIES) {
+            MoveGenerator.generate(state, list);
+            state.makeMove(randomMove(list, random));
+            plies++;
+        }
+
+        double score;
+        switch (state.getResult()) {
+            case GameState.WHITE_WINS: score = 1.0; break;
+            case GameState.BLACK_WINS: score = 0.0; break;
+            case GameState.DRAW: score = 0.5; break;
+            default:
+                int eval = Evaluation.evaluate(state);
+                if (state.getSideToMove() == GameState.BLACK) eval = -eval;
+                score = 1.0 / (1.0 + Math.exp(-eval / EVAL_SCALE));
+                break;
+        }
+
+        while (plies-- > 0) {
+            state.unmakeMove();
+        }
+        return score;
+    }
+
+    /**
+     * pick a move at random, treating all of a royal giant's bomb targets as one choice
+     */
+    private static int randomMove(MoveList list, SplittableRandom random) {
+        int bombs = 0;
+        for (int i = 0; i < list.size(); i++) {
+            if (Move.kind(list.get(i)) == Move.BOMB) bombs++;
+        }
+        int choices = list.size() - bombs + (bombs > 0 ? 1 : 0);
+        int pick = random.nextInt(choices);
+        if (pick == list.size() - bombs) {
+            // the bomb choice, at a random target
+            int target = random.nextInt(bombs);
+            for (int i = 0; i < list.size(); i++) {
+                if (Move.kind(list.get(i)) == Move.BOMB && target-- == 0) return list.get(i);
+            }
+        }
+        for (int i = 0; i < list.size(); i++) {
+            if (Move.kind(list.get(i)) == Move.BOMB) continue;
+            if (pick-- == 0) return list.get(i);
+        }
+        return list.get(0);
+    }
+
+    /**
+     * most visited child of a node, or null if it has none
+     */
+    private static Node bestChild(Node node) {
+        Node[] children = node.children;
+        if (children == null) return null;
+        Node best = null;
+        for (Node child : children) {
+            if (child != null && (best == null || child.visits > best.visits)) best = child;
+        }
+        return best;
+    }
+
+    // ===== results =====
+
+    /**
+     * stop a running search from another thread, it returns its best move so far
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * @return long playouts made by the last search
+     */
+    public long getPlayouts() {
+        return playouts;
+    }
+
+    /**
+     * @return double playouts per second over every thread in the last search
+     */
+    public double getPlayoutsPerSecond() {
+        return playouts / Math.max(elapsedNanos / 1e9, 1e-9);
+    }
+
+    /**
+     * @return int visits at the root, including ones kept from earlier searches
+     */
+    public int getRootVisits() {
+        return root == null ? 0 : root.visits;
+    }
+
+    /**
+     * @return double the best move's win rate for the side to move, 0 to 1
+     */
+    public double getBestWinRate() {
+        Node best = root == null ? null : bestChild(root);
+        return best == null || best.visits == 0 ? 0.5 : best.wins / best.visits;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * stop the worker threads for good
+     */
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    public static void main(String[] args) {
+        long millis = (long) ((args.length > 0 ? Double.parseDouble(args[0]) : 2.0) * 1000);
+        int cores = Runtime.getRuntime().availableProcessors();
+        GameState start = GameState.standard(1);
+
+        System.out.println("MCTS playouts from the opening, " + millis + " ms per search (" + cores + " cores)");
+        for (int threads = 1; threads <= Math.max(1, cores); threads *= 2) {
+            MctsSearch search = new MctsSearch(threads);
+            int move = search.search(start, millis);
+            System.out.println(String.format("%2d threads: %,12.0f playouts/s  %,10d playouts  best %s (%.1f%%)",
+                threads, search.getPlayoutsPerSecond(), search.getPlayouts(),
+                Move.toString(move), 100 * search.getBestWinRate()));
+            search.shutdown();
+        }
+    }
+}
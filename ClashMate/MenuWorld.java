@@ -42,7 +42,7 @@ public abstract class MenuWorld extends World
         
         try
         {
-            GreenfootImage img = new GreenfootImage("Background.png");
+            GreenfootImage img = Atlas.get("Background.png");
             bg.drawImage(img, 0, 0);
         }
         catch (Exception e)
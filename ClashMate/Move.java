@@ -0,0 +1,162 @@
+/**
+ * Helpers for the packed int moves produced by MoveGenerator
+ * A move is a plain int so move lists and search stacks never allocate
+ *
+ *  bits 0-5   from square
+ *  bits 6-11  to square (the bomb target for BOMB, same as from for abilities without a target)
+ *  bits 12-15 kind
+ *  bits 16-18 promotion piece type + 1 (0 when the move does not promote)
+ *
+ * Text form uses files a-h for columns and ranks 1-8 from white's side,
+ * e.g. "e2e4", "e7e8w" (promote to witch), "slash:b1", "bomb:e1e5", "pass"
+ *
+ * @author Saiful Shaik
+ * @version 2/6/2026
+ */
+public final class Move
+{
+    // move kinds
+    public static final int NORMAL = 0;
+    public static final int CASTLE = 1;
+    public static final int EN_PASSANT = 2;
+    public static final int SPEAR = 3;     // royal recruit ability, capture straight ahead
+    public static final int CHARGE = 4;    // dark prince ability, capture with splash damage
+    public static final int SLASH = 5;     // knight ability
+    public static final int SNIPE = 6;     // musketeer ability
+    public static final int SUMMON = 7;    // witch ability
+    public static final int BOMB = 8;      // royal giant ability
+    public static final int PROMOTE = 9;   // waiting recruit promotes through its ability
+    public static final int PASS = 10;     // only when nothing else is possible
+    public static final int KINDS = 11;
+
+    public static final int NONE = 0;
+
+    // letters used for promotion pieces, indexed by GameState piece type
+    private static final String TYPE_LETTERS = "dnmgswr";
+
+    private static final String[] KIND_NAMES = {
+        "", "", "", "spear", "charge", "slash", "snipe", "summon", "bomb", "promote", "pass"
+    };
+
+    private Move() {
+    }
+
+    /**
+     * pack a move without promotion
+     */
+    public static int encode(int from, int to, int kind) {
+        return from | (to << 6) | (kind << 12);
+    }
+
+    /**
+     * pack a move that promotes a recruit
+     * @param promotion GameState piece type to promote to, or GameState.EMPTY to stay a recruit
+     */
+    public static int encode(int from, int to, int kind, int promotion) {
+        return from | (to << 6) | (kind << 12) | ((promotion + 1) << 16);
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    public static int kind(int move) {
+        return (move >>> 12) & 15;
+    }
+
+    /**
+     * @return int the GameState piece type promoted to, or GameState.EMPTY
+     */
+    public static int promotion(int move) {
+        return ((move >>> 16) & 7) - 1;
+    }
+
+    /**
+     * check if a move spends elixir on an ability
+     */
+    public static boolean isAbility(int move) {
+        int kind = kind(move);
+        return kind >= SPEAR && kind <= PROMOTE;
+    }
+
+    /**
+     * name of a square, e.g. "e2"
+     */
+    public static String squareName(int sq) {
+        return "" + (char) ('a' + GameState.colOf(sq)) + (char) ('8' - GameState.rowOf(sq));
+    }
+
+    /**
+     * parse a square name
+     * @return int the square, or GameState.EMPTY if the name is not valid
+     */
+    public static int parseSquare(String name) {
+        if (name.length() != 2) return GameState.EMPTY;
+        return GameState.square('8' - name.charAt(1), name.charAt(0) - 'a');
+    }
+
+    /**
+     * letter used for a piece type in move text
+     */
+    public static char typeLetter(int type) {
+        return TYPE_LETTERS.charAt(type);
+    }
+
+    /**
+     * piece type for a letter used in move text (either case)
+     * @return int the GameState piece type, or GameState.EMPTY if the letter is not a piece
+     */
+    public static int typeOfLetter(char letter) {
+        int type = TYPE_LETTERS.indexOf(Character.toLowerCase(letter));
+        return type < 0 ? GameState.EMPTY : type;
+    }
+
+    /**
+     * text form of a move
+     */
+    public static String toString(int move) {
+        int kind = kind(move);
+        if (kind == PASS) return KIND_NAMES[PASS];
+
+        String from = squareName(from(move));
+        String to = squareName(to(move));
+        int promotion = promotion(move);
+        String suffix = promotion == GameState.EMPTY ? "" : String.valueOf(typeLetter(promotion));
+
+        switch (kind) {
+            case SLASH:
+            case SNIPE:
+            case SUMMON:
+                return KIND_NAMES[kind] + ":" + from;
+            case PROMOTE:
+                return KIND_NAMES[kind] + ":" + from + suffix;
+            case SPEAR:
+            case CHARGE:
+            case BOMB:
+                return KIND_NAMES[kind] + ":" + from + to + suffix;
+            default:
+                return from + to + suffix;
+        }
+    }
+
+    /**
+     * Read a move in text form (see toString) for a position
+     * Only legal moves are recognised, so the text never has to say what kind a plain move is
+     *
+     * @param state the position the move is played in
+     * @param text the move text, in either case
+     * @return int the legal packed move, or NONE if the text is not a legal move here
+     */
+    public static int parse(GameState state, String text) {
+        MoveList legal = new MoveList();
+        MoveGenerator.generate(state, legal);
+        for (int i = 0; i < legal.size(); i++) {
+            if (toString(legal.get(i)).equalsIgnoreCase(text)) return legal.get(i);
+        }
+        return NONE;
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * Generates every legal action for the side to move in one pass over its pieces
+ * Normal moves, castling, en passant, promotions (one move per affordable PromotionMenu choice,
+ * plus staying a recruit) and each elixir ability are written into a reusable MoveList
+ *
+ * ClashMate has no check, so every move the pieces can make is legal.
+ * Ability moves that can never do better than the plain move are not emitted:
+ * the spear is only generated for the straight-ahead capture it unlocks, and the
+ * dark prince charge only for captures (a charge onto an empty square would carry
+ * over to a later turn, which the headless model does not track).
+ *
+ * @author Saiful Shaik
+ * @version 2/6/2026
+ */
+public final class MoveGenerator
+{
+    // promotion options in the order the PromotionMenu shows them
+    private static final int[] PROMOTION_TYPES = {
+        GameState.KNIGHT, GameState.MUSKETEER, GameState.WITCH, GameState.DARK_PRINCE, GameState.ROYAL_GIANT
+    };
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Fill a list with every legal action for the side to move
+     * The list is left empty if the game is over, and holds a single PASS
+     * if the side to move has nothing else it can do
+     *
+     * @param state position to generate for
+     * @param list buffer to fill (cleared first)
+     */
+    public static void generate(GameState state, MoveList list) {
+        list.clear();
+        if (state.isGameOver()) return;
+
+        int side = state.getSideToMove();
+        int elixir = state.getElixir(side);
+        long enemy = state.getOccupancy(1 - side);
+        int enPassant = state.getEnPassantSquare();
+        int lastRow = GameState.promotionRow(side);
+
+        for (long pieces = state.getOccupancy(side); pieces != 0; pieces &= pieces - 1) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            int type = state.typeAt(from);
+            long targets = state.getValidTargets(from, false);
+            boolean canUseAbility = elixir >= GameState.abilityCost(type);
+
+            switch (type) {
+                case GameState.ROYAL_RECRUITS:
+                    for (long m = targets; m != 0; m &= m - 1) {
+                        int to = Long.numberOfTrailingZeros(m);
+                        int kind = to == enPassant ? Move.EN_PASSANT : Move.NORMAL;
+                        if (GameState.rowOf(to) == lastRow) addPromotions(list, from, to, kind, elixir);
+                        else list.add(Move.encode(from, to, kind));
+                    }
+                    if (!canUseAbility) break;
+
+                    if (GameState.rowOf(from) == lastRow) {
+                        // waiting recruit reopens the promotion menu, paying the ability cost first
+                        int budget = elixir - GameState.abilityCost(type);
+                        for (int promotion : PROMOTION_TYPES) {
+                            if (GameState.promotionCost(promotion) <= budget) {
+                                list.add(Move.encode(from, from, Move.PROMOTE, promotion));
+                            }
+                        }
+                    }
+                    else {
+                        // spear unlocks capturing straight ahead
+                        long spear = state.getValidTargets(from, true) & ~targets & enemy;
+                        if (spear != 0) {
+                            int to = Long.numberOfTrailingZeros(spear);
+                            int budget = elixir - GameState.abilityCost(type);
+                            if (GameState.rowOf(to) == lastRow) addPromotions(list, from, to, Move.SPEAR, budget);
+                            else list.add(Move.encode(from, to, Move.SPEAR));
+                        }
+                    }
+                    break;
+
+                case GameState.ROYAL_GIANT:
+                    for (long m = targets; m != 0; m &= m - 1) {
+                        int to = Long.numberOfTrailingZeros(m);
+                        int kind = Math.abs(to - from) == 2 ? Move.CASTLE : Move.NORMAL;
+                        list.add(Move.encode(from, to, kind));
+                    }
+                    // the bomb can be planted on any square
+                    if (canUseAbility) {
+                        for (int to = 0; to < GameState.SQUARES; to++) {
+                            list.add(Move.encode(from, to, Move.BOMB));
+                        }
+                    }
+                    break;
+
+                default:
+                    addMoves(list, from, targets, Move.NORMAL);
+                    if (!canUseAbility) break;
+
+                    switch (type) {
+                        case GameState.DARK_PRINCE:
+                            addMoves(list, from, targets & enemy, Move.CHARGE);
+                            break;
+                        case GameState.KNIGHT:
+                            list.add(Move.encode(from, from, Move.SLASH));
+                            break;
+                        case GameState.MUSKETEER:
+                            list.add(Move.encode(from, from, Move.SNIPE));
+                            break;
+                        case GameState.WITCH:
+                            list.add(Move.encode(from, from, Move.SUMMON));
+                            break;
+                    }
+                    break;
+            }
+        }
+
+        if (list.isEmpty()) list.add(Move.encode(0, 0, Move.PASS));
+    }
+
+    /**
+     * add one move of a kind for every square in a mask
+     */
+    private static void addMoves(MoveList list, int from, long targets, int kind) {
+        for (long m = targets; m != 0; m &= m - 1) {
+            list.add(Move.encode(from, Long.numberOfTrailingZeros(m), kind));
+        }
+    }
+
+    /**
+     * add a recruit move onto the promotion row once per affordable promotion,
+     * plus once for cancelling the menu and waiting
+     */
+    private static void addPromotions(MoveList list, int from, int to, int kind, int budget) {
+        for (int promotion : PROMOTION_TYPES) {
+            if (GameState.promotionCost(promotion) <= budget) {
+                list.add(Move.encode(from, to, kind, promotion));
+            }
+        }
+        list.add(Move.encode(from, to, kind));
+    }
+
+    /**
+     * check if a move is legal in a position
+     * Allocates a move list, so use it for validating input rather than in search
+     */
+    public static boolean isLegal(GameState state, int move) {
+        MoveList list = new MoveList();
+        generate(state, list);
+        return list.contains(move);
+    }
+}
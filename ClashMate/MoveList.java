@@ -0,0 +1,75 @@
+import java.util.Arrays;
+
+/**
+ * Reusable buffer of packed moves (see Move)
+ * Allocated once per search ply and cleared between uses, so generating moves does not allocate
+ * unless a position has more moves than any list has held before
+ *
+ * @author Saiful Shaik
+ * @version 2/6/2026
+ */
+public class MoveList
+{
+    // starting size, enough for 64 bomb targets plus every promotion choice on a crowded board;
+    // a list that fills up (e.g. eight royal giants with elixir for bombs) doubles
+    public static final int CAPACITY = 512;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        moves = new int[CAPACITY];
+        size = 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void add(int move) {
+        if (size == moves.length) moves = Arrays.copyOf(moves, 2 * size);
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    /**
+     * moves the list can hold before it has to grow
+     */
+    public int capacity() {
+        return moves.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * check if a move is in the list
+     */
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) return true;
+        }
+        return false;
+    }
+
+    /**
+     * swap two entries (used by move ordering)
+     */
+    public void swap(int i, int j) {
+        int tmp = moves[i];
+        moves[i] = moves[j];
+        moves[j] = tmp;
+    }
+}
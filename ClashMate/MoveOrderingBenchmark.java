@@ -0,0 +1,83 @@
+import java.util.SplittableRandom;
+
+/**
+ * Node count benchmark for the Search move ordering
+ * Searches a fixed set of positions (the standard opening plus positions reached by random
+ * play from it, always the same ones) to a fixed depth with each level of move ordering,
+ * each time from an empty transposition table, and reports the nodes searched and how many
+ * the full ordering saved over moves in generator order.
+ *
+ * Run with:
+ *     java MoveOrderingBenchmark [depth] [positions]
+ *
+ * @author Saiful Shaik
+ * @version 2/19/2026
+ */
+public class MoveOrderingBenchmark
+{
+    private static final int DEFAULT_DEPTH = 4;
+    private static final int DEFAULT_POSITIONS = 12;
+    private static final long SEED = 20260219L;
+    private static final int TABLE_MEGABYTES = 16;
+
+    // long enough that only the depth limit stops the search
+    private static final long NO_TIME_LIMIT = 24L * 60 * 60 * 1000;
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_POSITIONS;
+        GameState[] positions = positions(count);
+
+        System.out.println("nodes to depth " + depth + " over " + positions.length + " positions");
+        System.out.println("      unordered     captures         full  saved");
+        long[] totals = new long[3];
+        for (int i = 0; i < positions.length; i++) {
+            long[] nodes = new long[3];
+            for (int level = Search.NO_ORDERING; level <= Search.FULL_ORDERING; level++) {
+                nodes[level] = nodes(positions[i], depth, level);
+                totals[level] += nodes[level];
+            }
+            System.out.println(String.format("%3d: %,12d %,12d %,12d %5.1f%%",
+                i + 1, nodes[0], nodes[1], nodes[2], reduction(nodes[0], nodes[2])));
+        }
+        System.out.println(String.format("all: %,12d %,12d %,12d %5.1f%%",
+            totals[0], totals[1], totals[2], reduction(totals[0], totals[2])));
+    }
+
+    /**
+     * nodes a fresh search needs to reach the depth
+     */
+    private static long nodes(GameState state, int depth, int ordering) {
+        Search search = new Search(TABLE_MEGABYTES);
+        search.setMoveOrdering(ordering);
+        search.search(new GameState(state), depth, NO_TIME_LIMIT);
+        return search.getNodes();
+    }
+
+    /**
+     * the opening, then positions 10 to 40 random plies into a game
+     */
+    private static GameState[] positions(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        MoveList list = new MoveList();
+        GameState[] positions = new GameState[count];
+        positions[0] = GameState.standard(1);
+        for (int i = 1; i < count; i++) {
+            GameState state;
+            do {
+                state = GameState.standard(1);
+                int plies = 10 + random.nextInt(31);
+                for (int ply = 0; ply < plies && !state.isGameOver(); ply++) {
+                    MoveGenerator.generate(state, list);
+                    state.makeMove(list.get(random.nextInt(list.size())));
+                }
+            } while (state.isGameOver());
+            positions[i] = GameState.fromText(state.toText());
+        }
+        return positions;
+    }
+
+    private static double reduction(long unordered, long ordered) {
+        return unordered == 0 ? 0 : 100.0 * (unordered - ordered) / unordered;
+    }
+}
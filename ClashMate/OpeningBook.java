@@ -0,0 +1,271 @@
+import java.io.*;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Opening book keyed by Zobrist hash
+ * The book file is a list of fixed-width entries sorted by key:
+ *     8 bytes  Zobrist hash of the position
+ *     4 bytes  packed move (see Move)
+ *     4 bytes  weight, the points the move scored in the games it was played (a win is 2, a draw 1)
+ * A position with several book moves has one entry for each, next to each other.
+ *
+ * The file is memory-mapped rather than read, so opening it costs nothing however big it
+ * is, and a lookup is a binary search touching a couple of dozen entries. Book moves are
+ * picked at random in proportion to their weight, and checked against the legal moves so a
+ * hash collision can never play an illegal move.
+ *
+ * The book is built from game records, one game per line: the result from white's side
+ * (1, 0.5 or 0) followed by the moves as Move.toString writes them.
+ *     java OpeningBook selfplay [games] [records file] [depth]
+ *         plays Search self-play games and appends their records
+ *     java OpeningBook build [records file] [book file] [plies]
+ *         turns the first plies of every record into a book
+ *
+ * @author Saiful Shaik
+ * @version 2/18/2026
+ */
+public class OpeningBook
+{
+    public static final String BOOK_FILE = "opening_book.bin";
+    private static final String DEFAULT_RECORDS = "games.txt";
+
+    private static final int ENTRY_BYTES = 16;
+
+    // building: plies of each game to keep, and games a move needs to make the book
+    private static final int DEFAULT_PLIES = 16;
+    private static final int MIN_GAMES = 2;
+
+    // self-play: random moves to open with so the games differ
+    private static final int DEFAULT_GAMES = 200;
+    private static final int DEFAULT_DEPTH = 4;
+    private static final int RANDOM_PLIES = 2;
+    private static final int MAX_PLIES = 300;
+    private static final long NO_TIME_LIMIT = 24L * 60 * 60 * 1000;
+
+    // null if there is no book file
+    private final MappedByteBuffer entries;
+    private final int size;
+    private final SplittableRandom random = new SplittableRandom();
+
+    /**
+     * Map a book file, an empty book if it is missing or unreadable
+     *
+     * @param fileName the book file (under 2 GB)
+     */
+    public OpeningBook(String fileName) {
+        MappedByteBuffer mapped = null;
+        File file = new File(fileName);
+        if (file.exists()) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                // the mapping stays valid after the channel is closed
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                mapped.order(ByteOrder.BIG_ENDIAN);
+            }
+            catch (IOException e) {
+                System.err.println("Error opening the opening book: " + e.getMessage());
+            }
+        }
+        entries = mapped;
+        size = mapped == null ? 0 : mapped.capacity() / ENTRY_BYTES;
+    }
+
+    /**
+     * @return int number of entries in the book
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Pick a book move for a position
+     *
+     * @param state the position
+     * @return int a legal packed move, or Move.NONE if the position is not in the book
+     */
+    public int probe(GameState state) {
+        if (size == 0) return Move.NONE;
+        long key = state.getHash();
+        int first = lowerBound(key);
+        if (first == size || keyAt(first) != key) return Move.NONE;
+
+        MoveList legal = new MoveList();
+        MoveGenerator.generate(state, legal);
+
+        // the entries for this key that are legal here, and their total weight
+        List<Integer> moves = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        long total = 0;
+        for (int i = first; i < size && keyAt(i) == key; i++) {
+            int move = entries.getInt(i * ENTRY_BYTES + 8);
+            int weight = entries.getInt(i * ENTRY_BYTES + 12);
+            if (weight <= 0 || !contains(legal, move)) continue;
+            moves.add(move);
+            weights.add(weight);
+            total += weight;
+        }
+        if (total == 0) return Move.NONE;
+
+        long pick;
+        synchronized (random) {
+            pick = random.nextLong(total);
+        }
+        for (int i = 0; i < moves.size(); i++) {
+            pick -= weights.get(i);
+            if (pick < 0) return moves.get(i);
+        }
+        return moves.get(moves.size() - 1);
+    }
+
+    /**
+     * first entry whose key is not below the given one (keys compare unsigned)
+     */
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(keyAt(mid), key) < 0) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    private long keyAt(int index) {
+        return entries.getLong(index * ENTRY_BYTES);
+    }
+
+    private static boolean contains(MoveList list, int move) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == move) return true;
+        }
+        return false;
+    }
+
+    // ===== building =====
+
+    /**
+     * Build a book from game records
+     *
+     * @param recordsFile games, one per line (see the class comment)
+     * @param bookFile file to write the book to
+     * @param plies plies of each game to take moves from
+     * @return int entries written
+     */
+    public static int build(String recordsFile, String bookFile, int plies) throws IOException {
+        // position -> move -> { games, points in half points }
+        Map<Long, Map<Integer, int[]>> stats = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(recordsFile))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.trim().split("\\s+");
+                if (fields.length < 2) continue;
+                double result = Double.parseDouble(fields[0]);
+                GameState state = GameState.standard(1);
+                for (int ply = 0; ply < plies && ply + 1 < fields.length && !state.isGameOver(); ply++) {
+                    int move = Move.parse(state, fields[ply + 1]);
+                    if (move == Move.NONE) break;
+                    double score = state.getSideToMove() == GameState.WHITE ? result : 1 - result;
+                    int[] entry = stats.computeIfAbsent(state.getHash(), k -> new HashMap<>())
+                        .computeIfAbsent(move, k -> new int[2]);
+                    entry[0]++;
+                    entry[1] += (int) Math.round(2 * score);
+                    state.makeMove(move);
+                }
+            }
+        }
+
+        List<long[]> rows = new ArrayList<>();
+        for (Map.Entry<Long, Map<Integer, int[]>> position : stats.entrySet()) {
+            for (Map.Entry<Integer, int[]> move : position.getValue().entrySet()) {
+                int[] entry = move.getValue();
+                if (entry[0] < MIN_GAMES || entry[1] == 0) continue;
+                rows.add(new long[] { position.getKey(), move.getKey(), entry[1] });
+            }
+        }
+        rows.sort((a, b) -> a[0] != b[0] ? Long.compareUnsigned(a[0], b[0]) : Long.compare(b[2], a[2]));
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(bookFile)))) {
+            for (long[] row : rows) {
+                out.writeLong(row[0]);
+                out.writeInt((int) row[1]);
+                out.writeInt((int) row[2]);
+            }
+        }
+        return rows.size();
+    }
+
+    /**
+     * Play Search self-play games and append their records to a file
+     * @return int games written
+     */
+    public static int selfPlay(int games, String recordsFile, int depth) throws IOException {
+        SplittableRandom random = new SplittableRandom();
+        Search search = new Search();
+        MoveList list = new MoveList();
+        try (PrintWriter writer = new PrintWriter(new FileWriter(recordsFile, true))) {
+            for (int game = 0; game < games; game++) {
+                GameState state = GameState.standard(1);
+                StringBuilder moves = new StringBuilder();
+                for (int ply = 0; ply < MAX_PLIES && !state.isGameOver() && !state.isRepetition(); ply++) {
+                    int move;
+                    if (ply < RANDOM_PLIES) {
+                        MoveGenerator.generate(state, list);
+                        move = list.get(random.nextInt(list.size()));
+                    }
+                    else {
+                        move = search.search(state, depth, NO_TIME_LIMIT);
+                    }
+                    moves.append(' ').append(Move.toString(move));
+                    state.makeMove(move);
+                }
+                String result = state.getResult() == GameState.WHITE_WINS ? "1"
+                    : state.getResult() == GameState.BLACK_WINS ? "0" : "0.5";
+                writer.println(result + moves);
+                if ((game + 1) % 10 == 0) System.out.println("game " + (game + 1) + "/" + games);
+            }
+        }
+        return games;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String mode = args.length > 0 ? args[0] : "build";
+        if (mode.equals("selfplay")) {
+            int games = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_GAMES;
+            String records = args.length > 2 ? args[2] : DEFAULT_RECORDS;
+            int depth = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_DEPTH;
+            selfPlay(games, records, depth);
+            System.out.println(games + " games appended to " + records);
+        }
+        else if (mode.equals("build")) {
+            String records = args.length > 1 ? args[1] : DEFAULT_RECORDS;
+            String book = args.length > 2 ? args[2] : BOOK_FILE;
+            int plies = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_PLIES;
+            int written = build(records, book, plies);
+            System.out.println(written + " entries written to " + book);
+
+            // time lookups of the opening position
+            OpeningBook opened = new OpeningBook(book);
+            GameState start = GameState.standard(1);
+            int move = opened.probe(start);
+            int lookups = 10000;
+            long begin = System.nanoTime();
+            for (int i = 0; i < lookups; i++) {
+                opened.probe(start);
+            }
+            System.out.println(String.format("opening position: %s, %.1f us per lookup",
+                move == Move.NONE ? "not in book" : Move.toString(move), (System.nanoTime() - begin) / 1000.0 / lookups));
+        }
+        else {
+            System.out.println("usage: java OpeningBook selfplay [games] [records file] [depth]");
+            System.out.println("       java OpeningBook build [records file] [book file] [plies]");
+        }
+    }
+}
@@ -0,0 +1,212 @@
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Multi-threaded search using Lazy SMP
+ * Every thread runs its own Search on its own copy of the position, all sharing one
+ * lock-free TranspositionTable. The threads do not split the tree between them: they
+ * search the same tree and speed each other up through the table. Odd-numbered helpers
+ * start one iteration deeper so they fill in entries the main thread will need next.
+ *
+ * The main thread decides when to stop, following the TimeManager if there is one. Once it
+ * finishes (or runs out of time) the helpers are stopped, and the move of whichever thread
+ * completed the deepest iteration is played.
+ *
+ * The worker threads are created once and kept between searches
+ *
+ * @author Saiful Shaik
+ * @version 2/14/2026
+ */
+public class ParallelSearch
+{
+    private final Search[] searches;
+    private final TranspositionTable table;
+    private final ExecutorService helpers;
+
+    /**
+     * @param threads number of search threads, the calling thread included
+     * @param tableMegabytes memory for the shared transposition table
+     */
+    public ParallelSearch(int threads, int tableMegabytes) {
+        int count = Math.max(1, threads);
+        table = new TranspositionTable(tableMegabytes);
+        searches = new Search[count];
+        for (int i = 0; i < count; i++) {
+            searches[i] = new Search(table);
+        }
+        helpers = count == 1 ? null : Executors.newFixedThreadPool(count - 1, runnable -> {
+            Thread thread = new Thread(runnable, "ClashMate search helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * score small endgames from tablebases in every thread
+     * @param tablebase the tables to probe, or null to search everything
+     */
+    public void setTablebase(Tablebase tablebase) {
+        for (Search search : searches) {
+            search.setTablebase(tablebase);
+        }
+    }
+
+    /**
+     * a sensible thread count for this machine: half the cores, at least one
+     */
+    public static int defaultThreads() {
+        return Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    }
+
+    /**
+     * Find the best move for the side to move, searching on the calling thread plus the helpers
+     *
+     * @param state position to search (not changed, each thread searches a copy)
+     * @param maxDepth deepest iteration to run
+     * @param millis time limit
+     * @return int the best packed move found, or Move.NONE if the game is over
+     */
+    public int search(GameState state, int maxDepth, long millis) {
+        return search(state, maxDepth, millis, null);
+    }
+
+    /**
+     * Find the best move for the side to move, within the limits of a TimeManager
+     *
+     * @param state position to search (not changed, each thread searches a copy)
+     * @param maxDepth deepest iteration to run
+     * @param time limits for this move
+     * @return int the best packed move found, or Move.NONE if the game is over
+     */
+    public int search(GameState state, int maxDepth, TimeManager time) {
+        return search(state, maxDepth, time.getHardLimit(), time);
+    }
+
+    private int search(GameState state, int maxDepth, long millis, TimeManager time) {
+        table.newSearch();
+        for (Search search : searches) {
+            search.prepare(millis);
+        }
+        searches[0].setTimeManager(time);
+        // a ponder hit that came before prepare was undone by it
+        if (time != null && time.wasHit()) searches[0].ponderHit(time);
+
+        Future<?>[] running = new Future<?>[searches.length];
+        for (int i = 1; i < searches.length; i++) {
+            Search helper = searches[i];
+            GameState copy = new GameState(state);
+            int startDepth = 1 + (i & 1);
+            running[i] = helpers.submit(() -> helper.run(copy, startDepth, maxDepth));
+        }
+
+        searches[0].run(new GameState(state), 1, maxDepth);
+
+        for (int i = 1; i < searches.length; i++) {
+            searches[i].stop();
+        }
+        for (int i = 1; i < searches.length; i++) {
+            try {
+                running[i].get();
+            }
+            catch (Exception e) {
+                // a helper that failed only loses its own result
+                System.err.println("Search helper failed: " + e);
+            }
+        }
+
+        return deepest().getBestMove();
+    }
+
+    /**
+     * A ponder search (one with TimeManager.forPondering) was hit: the main thread now keeps
+     * to the limits for the clock and stops the helpers as usual when it is done
+     *
+     * @param time the search's TimeManager, after its ponderHit
+     */
+    public void ponderHit(TimeManager time) {
+        searches[0].ponderHit(time);
+    }
+
+    /**
+     * The move the transposition table holds for a position, e.g. the expected reply to a
+     * move just played, which the last search stored when it searched that move
+     *
+     * @param state the position
+     * @return int a legal packed move, or Move.NONE if the table has none
+     */
+    public int tableMove(GameState state) {
+        long entry = table.probe(state.getHash());
+        if (entry == 0) return Move.NONE;
+        int move = TranspositionTable.move(entry);
+        MoveList legal = new MoveList();
+        MoveGenerator.generate(state, legal);
+        for (int i = 0; i < legal.size(); i++) {
+            if (legal.get(i) == move) return move;
+        }
+        return Move.NONE;
+    }
+
+    /**
+     * the thread that finished the deepest iteration, the main thread wins ties
+     */
+    private Search deepest() {
+        Search best = searches[0];
+        for (Search search : searches) {
+            if (search.getCompletedDepth() > best.getCompletedDepth()) best = search;
+        }
+        return best;
+    }
+
+    /**
+     * stop a running search from another thread, it returns its best move so far
+     */
+    public void stop() {
+        for (Search search : searches) {
+            search.stop();
+        }
+    }
+
+    /**
+     * @return int score of the move returned by the last search, for the side to move
+     */
+    public int getBestScore() {
+        return deepest().getBestScore();
+    }
+
+    /**
+     * @return int deepest iteration any thread finished in the last search
+     */
+    public int getCompletedDepth() {
+        return deepest().getCompletedDepth();
+    }
+
+    /**
+     * @return long nodes searched by every thread in the last search
+     */
+    public long getNodes() {
+        long nodes = 0;
+        for (Search search : searches) {
+            nodes += search.getNodes();
+        }
+        return nodes;
+    }
+
+    public int getThreads() {
+        return searches.length;
+    }
+
+    /**
+     * empty the shared transposition table (e.g. before timing a fresh search)
+     */
+    public void clearTable() {
+        table.clear();
+    }
+
+    /**
+     * stop the helper threads for good
+     */
+    public void shutdown() {
+        if (helpers != null) helpers.shutdownNow();
+    }
+}
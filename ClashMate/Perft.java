@@ -0,0 +1,161 @@
+import java.util.Arrays;
+
+/**
+ * Perft (performance test) driver for the ClashMate rules
+ * Counts the leaf nodes of the full game tree to a fixed depth using MoveGenerator and
+ * GameState.makeMove/unmakeMove, and checks the counts against a bank of known-good values.
+ * A rules change that alters any count shows up as a failure, and the nodes/second report
+ * catches changes that slow move generation down.
+ *
+ * Run with no arguments to check the bank:
+ *     java Perft
+ * or count a single position, printing the count under each root move:
+ *     java Perft <depth> [position text]
+ *
+ * @author Saiful Shaik
+ * @version 2/9/2026
+ */
+public class Perft
+{
+    public static final String START = "dnmwgmnd/rrrrrrrr/8/8/8/8/RRRRRRRR/DNMWGMND w KQkq - 0 0 1 -";
+
+    // positions with known leaf counts, depth 1 first
+    private static final String[] BANK_NAMES = {
+        "starting layout, 1x elixir",
+        "starting layout, 3x elixir",
+        "midgame: castling, en passant, spear promotion, pending bomb",
+        "endgame: waiting recruit, full elixir",
+    };
+    private static final String[] BANK_POSITIONS = {
+        START,
+        "dnmwgmnd/rrrrrrrr/8/8/8/8/RRRRRRRR/DNMWGMND w KQkq - 0 0 3 -",
+        "d3g2d/rrm1wrrR/8/3rR3/8/2N5/RRR2RRR/D3G2D w KQkq d6 10 10 2 c5b2",
+        "R3g3/8/8/3W4/8/8/8/4G3 w - - 6 4 1 -",
+    };
+    private static final long[][] BANK_COUNTS = {
+        { 20L, 400L, 8910L, 198347L, 4928411L },
+        { 20L, 400L, 10510L, 276023L, 8148331L },
+        { 101L, 10575L, 584635L },
+        { 36L, 180L, 6001L, 40170L },
+    };
+
+    // one move list per ply so counting never allocates
+    private MoveList[] lists;
+
+    public Perft() {
+        lists = new MoveList[64];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = new MoveList();
+        }
+    }
+
+    /**
+     * count the leaf nodes of the game tree below a position
+     * @param state position to count from (restored before returning)
+     * @param depth plies to search
+     * @return long number of leaf nodes
+     */
+    public long perft(GameState state, int depth) {
+        return perft(state, depth, 0);
+    }
+
+    private long perft(GameState state, int depth, int ply) {
+        if (depth == 0) return 1;
+
+        MoveList list = lists[ply];
+        MoveGenerator.generate(state, list);
+        if (depth == 1) return list.size();
+
+        long nodes = 0;
+        for (int i = 0; i < list.size(); i++) {
+            state.makeMove(list.get(i));
+            nodes += perft(state, depth - 1, ply + 1);
+            state.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * print the leaf count under each root move, then the total and speed
+     */
+    public void divide(GameState state, int depth) {
+        MoveList root = new MoveList();
+        MoveGenerator.generate(state, root);
+
+        long start = System.nanoTime();
+        long total = 0;
+        for (int i = 0; i < root.size(); i++) {
+            int move = root.get(i);
+            state.makeMove(move);
+            long nodes = perft(state, depth - 1, 1);
+            state.unmakeMove();
+            total += nodes;
+            System.out.println(Move.toString(move) + ": " + nodes);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println();
+        System.out.println("moves: " + root.size());
+        System.out.println("nodes: " + total);
+        System.out.println(formatSpeed(total, elapsed));
+    }
+
+    /**
+     * check every position in the bank, printing each result and its speed
+     * @return true if every count matched
+     */
+    public boolean runBank() {
+        boolean allPassed = true;
+        long totalNodes = 0;
+        long totalTime = 0;
+
+        for (int p = 0; p < BANK_POSITIONS.length; p++) {
+            System.out.println(BANK_NAMES[p]);
+            GameState state = GameState.fromText(BANK_POSITIONS[p]);
+
+            for (int d = 0; d < BANK_COUNTS[p].length; d++) {
+                int depth = d + 1;
+                long expected = BANK_COUNTS[p][d];
+
+                long start = System.nanoTime();
+                long nodes = perft(state, depth);
+                long elapsed = System.nanoTime() - start;
+                totalNodes += nodes;
+                totalTime += elapsed;
+
+                boolean passed = nodes == expected;
+                allPassed &= passed;
+                System.out.println("  depth " + depth + ": " + nodes
+                    + (passed ? " ok" : " FAILED (expected " + expected + ")")
+                    + "  " + formatSpeed(nodes, elapsed));
+            }
+        }
+
+        System.out.println();
+        System.out.println((allPassed ? "all counts match" : "SOME COUNTS FAILED") + "  " + formatSpeed(totalNodes, totalTime));
+        return allPassed;
+    }
+
+    private static String formatSpeed(long nodes, long nanos) {
+        double seconds = Math.max(nanos, 1) / 1e9;
+        return String.format("%.3fs, %,.0f nodes/s", seconds, nodes / seconds);
+    }
+
+    public static void main(String[] args) {
+        Perft perft = new Perft();
+
+        if (args.length == 0) {
+            // warm up the JIT so the speed report is meaningful
+            perft.perft(GameState.fromText(START), 4);
+            if (!perft.runBank()) System.exit(1);
+            return;
+        }
+
+        int depth = Integer.parseInt(args[0]);
+        String position = START;
+        if (args.length > 1) {
+            position = String.join(" ", Arrays.copyOfRange(args, 1, args.length));
+        }
+        perft.divide(GameState.fromText(position), depth);
+    }
+}
@@ -70,8 +70,8 @@ public class Piece extends Actor
         setAbilityCost();
         setImage(type, isWhite);
 
-        // moves to the starting block
-        moveTo(currentBlock);
+        // sits on the starting block
+        currentBlock.setPiece(this);
         updateHitbox();
 
         // has not moved yet
@@ -82,16 +82,7 @@ public class Piece extends Actor
      * utility method to set the ability cost based on piece type
      */
     private void setAbilityCost() {
-        switch(type) {
-            case DARK_PRINCE: abilityCost = 5; break;
-            case KNIGHT: abilityCost = 3; break;
-            case MUSKETEER: abilityCost = 3; break;
-            case ROYAL_GIANT: abilityCost = 8; break;
-            case WITCH: abilityCost = 4; break;
-            case ROYAL_RECRUITS: abilityCost = 1; break;
-            case SKELETON: abilityCost = 0; break;
-            default: abilityCost = 0; break;
-        }
+        abilityCost = GameState.abilityCost(type.ordinal());
     }
     
     /**
@@ -103,6 +94,9 @@ public class Piece extends Actor
         // gets the world's turn manager
         GridWorld world = (GridWorld) getWorld();
         TurnManager tm = world.getTurnManager();
+        
+        // the computer moves its own pieces
+        if (world.isComputerPlayer(isWhite)) return false;
     
         // checks if it is the piece's turn based on color
         return isWhite ? tm.isPlayerTurn("WHITE") : tm.isPlayerTurn("BLACK");
@@ -110,67 +104,38 @@ public class Piece extends Actor
     
     /**
      * move this piece to a specified target block
+     * the game state applies captures, en passant, castling and splash damage,
+     * then the world brings the actors in line with it
      * @param target the block to move to
      */
     private void moveTo(Block target) {
-        boolean hadPiece = target.currentPiece() != null;
         GridWorld gw = (GridWorld) getWorld();
         
-        // handle en passant capture
-        if (type == PieceType.ROYAL_RECRUITS && gw != null) {
-            Block enPassantTarget = gw.getEnPassantTarget();
-            if (enPassantTarget != null && target == enPassantTarget) {
-                Piece capturedPawn = gw.getEnPassantVulnerablePawn();
-                if (capturedPawn != null && capturedPawn.getCurrentBlock() != null) {
-                    capturedPawn.getCurrentBlock().removePiece(true);
-                }
-            }
-        }
-        
-        // remove any piece on the target block
-        target.removePiece(true);
-        
-        // track two-square pawn moves for en passant
-        if (type == PieceType.ROYAL_RECRUITS && currentBlock != null && gw != null) {
-            int dx = target.getBoardX() - currentBlock.getBoardX();
-            if (Math.abs(dx) == 2) {
-                int direction = isWhite ? -1 : 1;
-                Block enPassantSquare = gw.getBlock(currentBlock.getBoardX() + direction, currentBlock.getBoardY());
-                gw.setEnPassant(enPassantSquare, this);
-                // System.out.println("[En Passant] Set target at (" + enPassantSquare.getBoardX() + ", " + enPassantSquare.getBoardY() + ") for " + (isWhite ? "WHITE" : "BLACK") + " pawn");
-            }
-        }
-        
-        // remove the piece from the current block
-        if (currentBlock != null) currentBlock.setPiece(null);
+        // dark prince charge deals splash damage if the move captures
+        boolean charging = type == PieceType.DARK_PRINCE && abilityState == 1;
+        boolean captured = gw.getGameState().movePiece(currentBlock.getSquare(), target.getSquare(), charging);
         
         // royal recruit s spear strike effect if its ability is used
-        if (type == PieceType.ROYAL_RECRUITS && abilityState == 1 && getWorld() != null) {
+        if (type == PieceType.ROYAL_RECRUITS && abilityState == 1) {
             SpearStrikeEffect spear = new SpearStrikeEffect(target.getX(), target.getY(), isWhite);
-            getWorld().addObject(spear, target.getX(), target.getY());
+            gw.addObject(spear, target.getX(), target.getY());
             abilityState = 0;
         }
         
         // Only play move sound if game has started (not during initial setup)
-        if (gw != null && gw.isGameStarted()) {
+        if (gw.isGameStarted()) {
             SoundManager.getInstance().playMove();
         }
         
-        setLocation(target.getX(), target.getY());
-
-        // updates current block
-        currentBlock = target;
-
-        // set this piece on the target block
-        target.setPiece(this);
-
-        // mark as moved
-        hasMoved = true;
+        // moves this piece (and a castling dark prince), removes captured pieces
+        gw.syncPieces();
 
         // dark prince splash damage effect
-        if (type == PieceType.DARK_PRINCE && abilityState == 1 && getWorld ()!= null && hadPiece) {
-            getWorld().addObject(new ChargeEffect(currentBlock.getX(), currentBlock.getY()), currentBlock.getX(), currentBlock.getY());
-            dealSplashDamage();
+        if (charging && captured) {
+            gw.addObject(new ChargeEffect(currentBlock.getX(), currentBlock.getY()), currentBlock.getX(), currentBlock.getY());
+            
+            // reset ability state
+            abilityState = 0;
         }
         
         // clear highlights after moving
@@ -178,74 +143,16 @@ public class Piece extends Actor
     }
     
     /**
-     * deal splash damage to adjacent pieces in a + shape
-     * used by Dark Prince ability
-     */
-    private void dealSplashDamage() {
-        GridWorld gw = (GridWorld) getWorld();
-            
-        int x = currentBlock.getBoardX();
-        int y = currentBlock.getBoardY();
-        
-        Block block1 = gw.getBlock(x+1, y);
-        if (block1 != null && block1.currentPiece() != null) {
-            if (block1.currentPiece().checkIsWhite() != isWhite) {
-                block1.removePiece(true);
-            }
-        }
-        Block block2 = gw.getBlock(x-1, y);
-        if (block2 != null && block2.currentPiece() != null) {
-            if (block2.currentPiece().checkIsWhite() != isWhite) {
-                block2.removePiece(true);
-            }
-        }
-        Block block3 = gw.getBlock(x, y+1);
-        if (block3 != null && block3.currentPiece() != null) {
-            if (block3.currentPiece().checkIsWhite() != isWhite) {
-                block3.removePiece(true);
-            }
-        }
-        Block block4 = gw.getBlock(x, y-1);
-        if (block4 != null && block4.currentPiece() != null) {
-            if (block4.currentPiece().checkIsWhite() != isWhite) {
-                block4.removePiece(true);
-            }
-        }
-
-        // reset ability state
-        abilityState = 0;
-    }
-    
-    /**
-     * spawn skeleton pieces in adjacent blocks
-     * used by Witch ability
+     * move this actor onto a block after its piece moved in the game state
+     * @param target the block the piece now stands on
      */
-    private void spawnSkeletons() {
-        GridWorld gw = (GridWorld) getWorld();
-            
-        int x = currentBlock.getBoardX();
-        int y = currentBlock.getBoardY();
+    public void relocate(Block target) {
+        setLocation(target.getX(), target.getY());
+        currentBlock = target;
+        target.setPiece(this);
         
-        Block block1 = gw.getBlock(x+1, y);
-        if (block1 != null && block1.currentPiece() == null) {
-            Piece skeleton = new Piece(PieceType.SKELETON, block1, this.isWhite);
-            gw.addObject(skeleton, block1.getX(), block1.getY());
-        }
-        Block block2 = gw.getBlock(x-1, y);
-        if (block2 != null && block2.currentPiece() == null) {
-            Piece skeleton = new Piece(PieceType.SKELETON, block2, this.isWhite);
-            gw.addObject(skeleton, block2.getX(), block2.getY());
-        }
-        Block block3 = gw.getBlock(x, y+1);
-        if (block3 != null && block3.currentPiece() == null) {
-            Piece skeleton = new Piece(PieceType.SKELETON, block3, this.isWhite);
-            gw.addObject(skeleton, block3.getX(), block3.getY());
-        }
-        Block block4 = gw.getBlock(x, y-1);
-        if (block4 != null && block4.currentPiece() == null) {
-            Piece skeleton = new Piece(PieceType.SKELETON, block4, this.isWhite);
-            gw.addObject(skeleton, block4.getX(), block4.getY());
-        }
+        // mark as moved
+        hasMoved = true;
     }
     
     /**
@@ -254,108 +161,12 @@ public class Piece extends Actor
      * @return true if the move is valid, false otherwise
      */
     private boolean checkIfMoveIsValid(Block targetBlock) {
-        // checks for a piece on the target block
-        Piece pieceOnTarget = targetBlock.currentPiece();
-        
-        // cannot move if there is a piece of the same color on the target block
-        if (pieceOnTarget != null && isWhite == pieceOnTarget.checkIsWhite()) return false;
-        
-        // current location
-        int x = currentBlock.getBoardX();
-        int y = currentBlock.getBoardY();
-        
-        // target location
-        int targetX = targetBlock.getBoardX();
-        int targetY = targetBlock.getBoardY();
-        
-        // distance between current and target
-        int dx = targetX - x; 
-        int dy = targetY - y; 
+        // royal giant is picking a bomb target, not moving
+        if (type == PieceType.ROYAL_GIANT && abilityState == 1) return false;
         
-        // direction multiplier for forward movement
-        int direction = isWhite ? -1 : 1;
-    
-        switch (type) {
-            case ROYAL_RECRUITS:
-                if (pieceOnTarget == null) {
-                    if (dy != 0) {
-                        // check for en passant capture
-                        if (dx == direction && Math.abs(dy) == 1) {
-                            GridWorld world = (GridWorld) getWorld();
-                            Block enPassantTarget = world.getEnPassantTarget();
-                            if (enPassantTarget != null && targetBlock == enPassantTarget) {
-                                return true;
-                            }
-                        }
-                        return false;
-                    }
-                    if (dx == direction) return true;
-                    // first move can move two squares
-                    if (!hasMoved && dx == 2 * direction) {
-                        GridWorld world = (GridWorld) getWorld();
-                        Block intermediate = world.getBlock(x + direction, y);
-                        return intermediate.currentPiece() == null;
-                    }
-                    return false;
-                } 
-                else {
-                    if (dx == direction && Math.abs(dy) == 1) return true;
-                    return dx == direction && dy == 0 && abilityUsed;
-                }
-    
-            case DARK_PRINCE:
-                if (dx != 0 && dy != 0) return false; // must be straight line
-                return isPathClear(x, y, targetX, targetY);
-    
-            case WITCH:
-                if (dx != 0 && dy != 0 && Math.abs(dx) != Math.abs(dy)) return false; // diagonal or straight
-                return isPathClear(x, y, targetX, targetY);
-    
-            case SKELETON:
-                if (Math.abs(dx) > 1 || Math.abs(dy) > 1) return false;
-                if (Math.abs(dy) == Math.abs(dx) && pieceOnTarget != null) {
-                    if (pieceOnTarget.checkIsWhite() != this.isWhite) {
-                        return true;
-                    }
-                }
-                if (dy == 0 && dx == direction && pieceOnTarget == null) return true;
-                return false;
-    
-            case ROYAL_GIANT:
-                if (abilityState == 1) return false; 
-            
-                if (!hasMoved && dx == 0 && Math.abs(dy) == 2) {
-                    int rookY = (dy > 0) ? 7 : 0; 
-                    
-                    GridWorld gw = (GridWorld) getWorld();
-                    Block rookBlock = gw.getBlock(x, rookY);
-                    
-                    // check for castling
-                    if (rookBlock != null) {
-                        Piece potentialRook = rookBlock.currentPiece();
-            
-                        if (potentialRook != null && 
-                            potentialRook.getType() == PieceType.DARK_PRINCE && 
-                            !potentialRook.checkHasMoved() && 
-                            isPathClear(x, y, x, rookY)) {
-                            // System.out.println("[King] Can Castle");
-                            return true;
-                        }
-                    }
-                }
-                // default movement
-                if (Math.abs(dx) <= 1 && Math.abs(dy) <= 1) return true;
-                return false;
-    
-            case KNIGHT:
-                return (Math.abs(dx) == 2 && Math.abs(dy) == 1) || 
-                       (Math.abs(dx) == 1 && Math.abs(dy) == 2);
-    
-            case MUSKETEER:
-                if (Math.abs(dx) != Math.abs(dy)) return false;
-                return isPathClear(x, y, targetX, targetY);
-        }
-        return false;
+        GameState state = ((GridWorld) getWorld()).getGameState();
+        boolean spear = type == PieceType.ROYAL_RECRUITS && abilityUsed;
+        return state.isValidMove(currentBlock.getSquare(), targetBlock.getSquare(), spear);
     }
     
     /**
@@ -374,63 +185,6 @@ public class Piece extends Actor
         return hasMoved;
     }
     
-    /**
-     * check if the path between two blocks is clear (no pieces in between)
-     * @param startX starting block x
-     * @param startY starting block y
-     * @param endX ending block x
-     * @param endY ending block y
-     * @return true if the path is clear, false otherwise
-     */
-    private boolean isPathClear(int startX, int startY, int endX, int endY) {
-        GridWorld world = (GridWorld) getWorld();
-        
-        int dx = Integer.compare(endX, startX); 
-        int dy = Integer.compare(endY, startY); 
-    
-        int x = startX + dx;
-        int y = startY + dy;
-        
-        // check if any blocks in between the start and end are occupied
-        while (x != endX || y != endY) {
-            Block block = world.getBlock(x, y);
-            if (block.currentPiece() != null) return false;
-            x += dx;
-            y += dy;
-        }
-        return true;
-    }
-    
-    /**
-     * Perform the snipe ability 
-     * used by the musketeer
-     */
-    private void snipe() {
-        int x = currentBlock.getBoardX();
-        int y = currentBlock.getBoardY();
-        
-        int direction = isWhite ? -1 : 1;
-        
-        GridWorld gw = (GridWorld) getWorld();
-        
-        int step = isWhite ? -1 : 1;
-        
-        int cx = x + step;
-
-        // keep going until hitting a piece or the edge of the board
-        while (cx < gw.CELLS_TALL) {
-            Block b = gw.getBlock(cx, y);
-            if (b.currentPiece() != null) {
-                if (b.currentPiece().checkIsWhite() != isWhite) {
-                    b.removePiece(true);
-                    break;
-                }
-                else break;
-            }
-            cx += step;
-        }
-    }
-
     /**
      * handle piece movement based on mouse clicks
      */
@@ -517,42 +271,11 @@ public class Piece extends Actor
     
     /**
      * execute castling move
+     * the game state moves the dark prince alongside the royal giant
      * @param targetBlock the block the king is moving to
      */
     private void executeCastling(Block targetBlock) {
-        GridWorld gw = (GridWorld) getWorld();
-        
-        // gets king and rook original and target positions
-        int row = currentBlock.getBoardX();
-        int kingOrigY = currentBlock.getBoardY();
-        int kingTargY = targetBlock.getBoardY();
-        
-        int rookOrigY = (kingTargY > kingOrigY) ? 7 : 0;
-        int rookTargY = (kingTargY > kingOrigY) ? kingTargY - 1 : kingTargY + 1;
-
-        // move to target block
         moveTo(targetBlock);
-    
-        Block rookOrigBlock = gw.getBlock(row, rookOrigY);
-        Block rookTargBlock = gw.getBlock(row, rookTargY);
-        Piece rook = rookOrigBlock.currentPiece();
-        
-        if (rook != null) {
-            // remove rook from starting block
-            rookOrigBlock.setPiece(null); 
-            
-            // move rook
-            rook.setLocation(rookTargBlock.getX(), rookTargBlock.getY());
-
-            // update rook's current block
-            rook.setCurrentBlock(rookTargBlock);
-
-            // set rook on target block
-            rookTargBlock.setPiece(rook);
-
-            // rook cannot castle again
-            rook.hasMoved = true;
-        }
     }
 
     /**
@@ -601,42 +324,43 @@ public class Piece extends Actor
         // first clear any existing highlights
         clearHighlights(); 
         
-        // iterate through all blocks to check for valid moves
-        for (int x = 0; x < GridWorld.CELLS_TALL; x++) {
-            for (int y = 0; y < GridWorld.CELLS_WIDE; y++) {
-                Block block = world.getBlock(x, y);
-
-                // safety check
-                if (block == null ) continue;
-
-                // all blocks can be targeted by royal giant ability
-                if (type == PieceType.ROYAL_GIANT && abilityState == 1) {
+        // all blocks can be targeted by royal giant ability
+        if (type == PieceType.ROYAL_GIANT && abilityState == 1) {
+            for (int sq = 0; sq < GameState.SQUARES; sq++) {
+                Block block = world.getBlock(sq);
+                block.highlight(Color.ORANGE);
+                highlightedBlocks.add(block);
+            }
+            return;
+        }
+        
+        // valid targets come from the game state as one bitboard
+        GameState state = world.getGameState();
+        boolean spear = type == PieceType.ROYAL_RECRUITS && abilityUsed;
+        long targets = state.getValidTargets(currentBlock.getSquare(), spear);
+        int enPassantSquare = state.getEnPassantSquare();
+        
+        for (long m = targets; m != 0; m &= m - 1) {
+            int sq = Long.numberOfTrailingZeros(m);
+            Block block = world.getBlock(sq);
+            
+            Piece pieceOnTarget = block.currentPiece();
+            if (pieceOnTarget != null) {
+                if (abilityState == 1 && type == PieceType.DARK_PRINCE) {
                     block.highlight(Color.ORANGE);
-                    highlightedBlocks.add(block);
-                }
-
-                // highlight valid move blocks
-                else if (checkIfMoveIsValid(block)) {
-                    Piece pieceOnTarget = block.currentPiece();
-                    if (pieceOnTarget != null && pieceOnTarget.checkIsWhite() != this.isWhite) {
-                        if (abilityState == 1 && type == PieceType.DARK_PRINCE) {
-                            block.highlight(Color.ORANGE);
-                        }
-                        else block.highlight(Color.RED);
-                    } 
-                    else {
-                        // Check if this is an en passant capture (empty square but valid diagonal)
-                        Block enPassantTarget = world.getEnPassantTarget();
-                        if (type == PieceType.ROYAL_RECRUITS && enPassantTarget != null && block == enPassantTarget) {
-                            block.highlight(Color.RED); // Highlight en passant as a capture
-                        } else {
-                            block.highlight(Color.GREEN); 
-                        }
-                    }
-                    // add to highlighted blocks list
-                    highlightedBlocks.add(block);
                 }
+                else block.highlight(Color.RED);
+            } 
+            // Highlight en passant as a capture
+            else if (type == PieceType.ROYAL_RECRUITS && sq == enPassantSquare) {
+                block.highlight(Color.RED);
+            }
+            else {
+                block.highlight(Color.GREEN); 
             }
+            
+            // add to highlighted blocks list
+            highlightedBlocks.add(block);
         }
     }
 
@@ -665,38 +389,8 @@ public class Piece extends Actor
      * @param isWhite whether the piece is white
      */
     private void setImage(PieceType type, boolean isWhite) {
-        switch (type) {
-            case DARK_PRINCE:
-                if (isWhite) setImage("images/WDarkPrince.png");
-                else setImage("images/BDarkPrince.png");
-                break;
-            case KNIGHT:
-                if (isWhite) setImage("images/WKnight.png");
-                else setImage("images/BKnight.png");
-                break;
-            case MUSKETEER:
-                if (isWhite) setImage("images/WMusketeer.png");
-                else setImage("images/BMusketeer.png");
-                break;
-            case ROYAL_GIANT:
-                if (isWhite) setImage("images/WRoyalGiant.png");
-                else setImage("images/BRoyalGiant.png");
-                break;
-            case SKELETON:
-                if (isWhite) setImage("images/WSkeleton.png");
-                else setImage("images/BSkeleton.png");
-                break;
-            case WITCH:
-                if (isWhite) setImage("images/WWitch.png");
-                else setImage("images/BWitch.png");
-                break;
-            case ROYAL_RECRUITS:
-                if (isWhite) setImage("images/WRoyalRecruits.png");
-                else setImage("images/BRoyalRecruits.png");
-                break;
-        }
-        // scale to size
-        getImage().scale(size, size);
+        // shared with every other piece of the type and colour, loaded once
+        setImage(SpriteCache.get(type, isWhite, size));
     }
     
     /**
@@ -709,32 +403,8 @@ public class Piece extends Actor
             color = Color.ORANGE;
         }
 
-        GreenfootImage img = getImage();
-
-        // copy to avoid scaling issues
-        GreenfootImage hitboxImg = new GreenfootImage(img); 
-
-        // draw hitbox
-        hitboxImg.setColor(color);
-        hitboxImg.drawRect(0, 0, img.getWidth()-1, img.getHeight()-1);
-
-        // update image
-        setImage(hitboxImg);
-    }
-
-    private void slash(GridWorld gw, int x, int y, int direction) {
-        Block block1 = gw.getBlock(x+direction, y-1);
-        if (block1 != null) {
-            block1.removePiece(true);
-        }
-        Block block2 = gw.getBlock(x+direction, y);
-        if (block2 != null) {
-            block2.removePiece(true);
-        }
-        Block block3 = gw.getBlock(x+direction, y+1);
-        if (block3 != null) {
-            block3.removePiece(true);
-        }
+        // the image with the hitbox drawn on, cached for each colour
+        setImage(SpriteCache.framed(type, isWhite, size, color));
     }
 
     /**
@@ -746,16 +416,15 @@ public class Piece extends Actor
         GridWorld gw = (GridWorld) getWorld();
         gw.removeElixir(isWhite, abilityCost);
         
-        int x = currentBlock.getBoardX();
-        int y = currentBlock.getBoardY();
-        
-        int direction = isWhite ? -1 : 1;
+        GameState state = gw.getGameState();
+        int square = currentBlock.getSquare();
         
         switch (type) {
             case KNIGHT:
                 KnightSlashEffect slash = new KnightSlashEffect(getX(), getY(),isWhite);
                 gw.addObject(slash, getX(), getY());
-                slash(gw, x, y, direction);
+                state.knightSlash(square);
+                gw.syncPieces();
                 endTurn();
                 break;
                 
@@ -770,31 +439,25 @@ public class Piece extends Actor
                 SummonEffect summon = new SummonEffect(getX(), getY());
                 gw.addObject(summon, getX(), getY());
                 
-                spawnSkeletons();
+                // summon skeletons in the adjacent blocks
+                state.summonSkeletons(square);
+                gw.syncPieces();
                 endTurn();
                 break;
                 
             case MUSKETEER:
-                int cx = x + (isWhite ? -1 : 1);
-                Block targetBlock = null;
+                // shoot the first piece straight ahead, only enemies are removed
+                int target = state.snipe(square);
 
                 // add snipe animation bullet
-                while (cx >= 0 && cx < gw.CELLS_TALL) {
-                    Block b = gw.getBlock(cx, y);
-                    if (b.currentPiece() != null) {
-                        targetBlock = b;
-                        break;
-                    }
-                    cx += (isWhite ? -1 : 1);
-                }
-                
-                if (targetBlock != null) {
+                if (target != GameState.EMPTY) {
+                    Block targetBlock = gw.getBlock(target);
                     SnipeEffect snipe = new SnipeEffect(getX(), getY(), 
                         targetBlock.getX(), targetBlock.getY());
                     gw.addObject(snipe, getX(), getY());
                 }
                 
-                snipe();
+                gw.syncPieces();
                 endTurn();
                 break;
                 
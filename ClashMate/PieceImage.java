@@ -42,7 +42,7 @@ class PieceImage extends Actor
     //Create the display for the image
     private void loadImage()
     {
-        GreenfootImage img = new GreenfootImage(imagePath);
+        GreenfootImage img = new GreenfootImage(Atlas.get(imagePath));
         
         // Resize to fit in a nice display size
         img.scale(100, 100);
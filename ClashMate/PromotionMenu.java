@@ -12,11 +12,11 @@ import java.util.List;
 public class PromotionMenu extends Actor
 {
     // promotion costs
-    public static final int KNIGHT_COST = 2;
-    public static final int MUSKETEER_COST = 3;
-    public static final int DARK_PRINCE_COST = 5;
-    public static final int WITCH_COST = 6;
-    public static final int ROYAL_GIANT_COST = 5;
+    public static final int KNIGHT_COST = GameState.promotionCost(GameState.KNIGHT);
+    public static final int MUSKETEER_COST = GameState.promotionCost(GameState.MUSKETEER);
+    public static final int DARK_PRINCE_COST = GameState.promotionCost(GameState.DARK_PRINCE);
+    public static final int WITCH_COST = GameState.promotionCost(GameState.WITCH);
+    public static final int ROYAL_GIANT_COST = GameState.promotionCost(GameState.ROYAL_GIANT);
     
     private Piece promotingPiece;
     private boolean isWhite;
@@ -192,24 +192,13 @@ public class PromotionMenu extends Actor
         
         Block block = promotingPiece.getCurrentBlock();
         
-        // remove original piece from world list
-        if (isWhite) gw.getWhitePieces().remove(promotingPiece);
-        else gw.getBlackPieces().remove(promotingPiece);
-        
-        block.setPiece(null);
-        gw.removeObject(promotingPiece);
-        
-        // adds new piece to world
-        Piece newPiece = new Piece(newType, block, isWhite);
-        gw.addObject(newPiece, block.getX(), block.getY());
-        
-        // adds new pieces
-        if (isWhite) gw.getWhitePieces().add(newPiece);
-        else gw.getBlackPieces().add(newPiece);
+        // promote in the game state, the world swaps the recruit actor for the new piece
+        gw.getGameState().promote(block.getSquare(), newType.ordinal());
+        gw.syncPieces();
         
         // closem enu and end turn
         closeMenu();
-        newPiece.endTurn();
+        block.currentPiece().endTurn();
     }
     
     /**
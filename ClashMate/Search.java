@@ -0,0 +1,568 @@
+/**
+ * Alpha-beta search for the computer player
+ * Iterative deepening negamax over every move MoveGenerator produces (abilities, bombs and
+ * promotions included), with a transposition table keyed on the Zobrist hash and a
+ * capture-only quiescence search at the leaves, scored by Evaluation. Positions the endgame
+ * Tablebase covers (if one is set) are scored from it instead of being searched.
+ *
+ * Each iteration searches the best move of the previous one first, so when the time runs
+ * out part way through an iteration the best fully searched move is still safe to play.
+ * With a TimeManager the search also stops between iterations once the best move has settled.
+ *
+ * Moves are tried in order of: the transposition table move, then captures and abilities
+ * by the material they are expected to remove (most valuable victim, least valuable
+ * attacker first; the knight slash, the dark prince splash and bombs counting every enemy
+ * piece in their area), then killer moves (quiet moves that caused a cutoff at the same ply),
+ * then the remaining quiet moves by their history score. MoveOrderingBenchmark measures
+ * how many nodes this saves.
+ *
+ * The search works on the GameState it is given through makeMove/unmakeMove and leaves it
+ * as it found it. A Search is not thread safe, give each thread its own Search and GameState;
+ * several Searches can share one TranspositionTable (see ParallelSearch).
+ *
+ * @author Saiful Shaik
+ * @version 2/13/2026
+ */
+public class Search
+{
+    public static final int INFINITY = 1000000;
+
+    // score for winning on the spot, less one per ply so quicker wins score higher
+    public static final int WIN = 100000;
+    public static final int MAX_PLY = 64;
+
+    // scores at least this far from zero are forced wins or losses: a tablebase win can be
+    // Tablebase.MAX_DISTANCE plies from a position that is itself MAX_PLY plies into the search
+    public static final int WIN_BOUND = WIN - Tablebase.MAX_DISTANCE - MAX_PLY;
+
+    // move ordering bands, highest first, all below the table move's INFINITY
+    private static final int GOOD_CAPTURE = 800000;
+    private static final int KILLER = 700000;
+    private static final int HISTORY_MAX = 600000;
+
+    // how much of the move ordering to use (MoveOrderingBenchmark compares them)
+    public static final int NO_ORDERING = 0;
+    public static final int CAPTURE_ORDERING = 1;
+    public static final int FULL_ORDERING = 2;
+
+    private TranspositionTable table;
+    private Tablebase tablebase;
+
+    // one move list and score buffer per ply so searching never allocates
+    private MoveList[] lists;
+    private int[][] scores;
+
+    // two quiet moves per ply that caused a cutoff, and cutoff counts per side, from and to square
+    private int[][] killers;
+    private int[][][] history;
+    private int ordering = FULL_ORDERING;
+
+    private volatile boolean stopped;
+    // changed by ponderHit while the search is running
+    private volatile long deadline;
+    private TimeManager timeManager;
+    private long nodes;
+
+    // result of the last completed iteration
+    private int bestMove;
+    private int bestScore;
+    private int completedDepth;
+
+    /**
+     * Create a search with its own transposition table of the default size
+     */
+    public Search() {
+        this(TranspositionTable.DEFAULT_MEGABYTES);
+    }
+
+    /**
+     * Create a search with its own transposition table
+     * @param megabytes memory for the transposition table
+     */
+    public Search(int megabytes) {
+        this(new TranspositionTable(megabytes));
+    }
+
+    /**
+     * Create a search using a transposition table that may be shared with other searches
+     */
+    public Search(TranspositionTable table) {
+        this.table = table;
+        lists = new MoveList[MAX_PLY + 1];
+        scores = new int[MAX_PLY + 1][MoveList.CAPACITY];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = new MoveList();
+        }
+        killers = new int[MAX_PLY + 1][2];
+        history = new int[2][GameState.SQUARES][GameState.SQUARES];
+    }
+
+    /**
+     * Choose how much move ordering to use (for MoveOrderingBenchmark)
+     * NO_ORDERING leaves moves in generator order, CAPTURE_ORDERING adds the table move and
+     * captures by expected material, FULL_ORDERING adds killers and history. Quiescence always
+     * orders its captures, without that an unordered search of even depth 4 can take hours
+     */
+    public void setMoveOrdering(int ordering) {
+        this.ordering = ordering;
+    }
+
+    /**
+     * Score small endgames from tablebases instead of searching them
+     * @param tablebase the tables to probe, or null to search everything
+     */
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Find the best move for the side to move
+     *
+     * @param state position to search (restored before returning)
+     * @param maxDepth deepest iteration to run
+     * @param millis time limit, the search stops part way through an iteration once it passes
+     * @return int the best packed move found, or Move.NONE if the game is over
+     */
+    public int search(GameState state, int maxDepth, long millis) {
+        table.newSearch();
+        prepare(millis);
+        return run(state, 1, maxDepth);
+    }
+
+    /**
+     * Find the best move for the side to move, within the limits of a TimeManager
+     *
+     * @param state position to search (restored before returning)
+     * @param maxDepth deepest iteration to run
+     * @param time limits for this move
+     * @return int the best packed move found, or Move.NONE if the game is over
+     */
+    public int search(GameState state, int maxDepth, TimeManager time) {
+        table.newSearch();
+        prepare(time.getHardLimit());
+        setTimeManager(time);
+        // a ponder hit that came before prepare was undone by it
+        if (time.wasHit()) ponderHit(time);
+        return run(state, 1, maxDepth);
+    }
+
+    /**
+     * Reset the stop flag and counters before a run
+     * Called on the thread that starts the search, so a stop() that comes before the
+     * searching thread gets going is not lost
+     *
+     * @param millis time limit for the run
+     */
+    public void prepare(long millis) {
+        stopped = false;
+        deadline = System.nanoTime() + millis * 1000000L;
+        nodes = 0;
+        bestMove = Move.NONE;
+        bestScore = 0;
+        completedDepth = 0;
+        timeManager = null;
+
+        // killers are only good for the position they came from, history fades between searches
+        for (int[] ply : killers) {
+            ply[0] = Move.NONE;
+            ply[1] = Move.NONE;
+        }
+        ageHistory();
+    }
+
+    /**
+     * Let a TimeManager end the next run between iterations (prepare clears it)
+     */
+    public void setTimeManager(TimeManager time) {
+        this.timeManager = time;
+    }
+
+    /**
+     * Switch a running ponder search over to the limits of its TimeManager, which has just
+     * had ponderHit called on it. Stops the search at once if pondering used up the time.
+     * A hit that comes before the searching thread has called prepare is applied again by
+     * search, which checks TimeManager.wasHit once prepare is done
+     */
+    public void ponderHit(TimeManager time) {
+        deadline = System.nanoTime() + time.getHardLimit() * 1000000L;
+        if (time.isSpent()) stop();
+    }
+
+    /**
+     * Run iterative deepening after prepare
+     *
+     * @param state position to search (restored before returning)
+     * @param startDepth first iteration to run (helper threads start deeper)
+     * @param maxDepth deepest iteration to run
+     * @return int the best packed move found, or Move.NONE if the game is over
+     */
+    public int run(GameState state, int startDepth, int maxDepth) {
+        MoveList root = new MoveList();
+        MoveGenerator.generate(state, root);
+        if (root.isEmpty()) return Move.NONE;
+        if (root.size() > 1 && ordering != NO_ORDERING) {
+            int[] rootScores = scores(0, root);
+            scoreMoves(state, root, rootScores, Move.NONE, 0);
+            for (int i = 0; i < root.size(); i++) {
+                pickNext(root, rootScores, i);
+            }
+        }
+        bestMove = root.get(0);
+        if (root.size() == 1) return bestMove;
+
+        for (int depth = startDepth; depth <= Math.min(maxDepth, MAX_PLY); depth++) {
+            if (stopped) break;
+            searchRoot(state, root, depth);
+            if (stopped) break;
+            completedDepth = depth;
+
+            // nothing can beat a forced win
+            if (Math.abs(bestScore) >= WIN_BOUND) break;
+            if (timeManager != null && timeManager.shouldStop(bestMove, bestScore)) break;
+        }
+        return bestMove;
+    }
+
+    /**
+     * search every root move to a depth, moving the best one to the front of the list
+     */
+    private void searchRoot(GameState state, MoveList root, int depth) {
+        int alpha = -INFINITY;
+        int best = 0;
+        for (int i = 0; i < root.size(); i++) {
+            state.makeMove(root.get(i));
+            int score = -negamax(state, depth - 1, -INFINITY, -alpha, 1);
+            state.unmakeMove();
+            if (stopped) break;
+
+            if (score > alpha) {
+                alpha = score;
+                best = i;
+                // a move that beats the previous best is safe to play even if time runs out
+                bestMove = root.get(i);
+                bestScore = score;
+            }
+        }
+        if (best > 0) {
+            int move = root.get(best);
+            for (int i = best; i > 0; i--) {
+                root.set(i, root.get(i - 1));
+            }
+            root.set(0, move);
+        }
+    }
+
+    private int negamax(GameState state, int depth, int alpha, int beta, int ply) {
+        if (state.isGameOver()) return terminalScore(state, ply);
+        if (state.isRepetition()) return 0;
+        if (tablebase != null) {
+            int score = tablebase.probe(state);
+            if (score != Tablebase.NO_RESULT) return score > 0 ? score - ply : score < 0 ? score + ply : 0;
+        }
+        if (depth <= 0 || ply >= MAX_PLY) return quiesce(state, alpha, beta, ply);
+        if (checkTime()) return 0;
+
+        // transposition table cutoff
+        long key = state.getHash();
+        long entry = table.probe(key);
+        int ttMove = Move.NONE;
+        if (entry != 0) {
+            ttMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER && score >= beta)
+                    || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        MoveList list = lists[ply];
+        MoveGenerator.generate(state, list);
+        int[] moveScores = scores(ply, list);
+        scoreMoves(state, list, moveScores, ttMove, ply);
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMoveHere = Move.NONE;
+        for (int i = 0; i < list.size(); i++) {
+            int move = pickNext(list, moveScores, i);
+            state.makeMove(move);
+            int score = -negamax(state, depth - 1, -beta, -alpha, ply + 1);
+            state.unmakeMove();
+            if (stopped) return 0;
+
+            if (score > best) {
+                best = score;
+                bestMoveHere = move;
+                if (score > alpha) alpha = score;
+                if (alpha >= beta) {
+                    if (materialGain(state, move) <= 0) rememberCutoff(state, move, depth, ply);
+                    break;
+                }
+            }
+        }
+
+        int bound = best <= originalAlpha ? TranspositionTable.UPPER
+            : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        table.store(key, bestMoveHere, depth, bound, toTable(best, ply));
+        return best;
+    }
+
+    /**
+     * search captures only until the position is quiet, so the leaves are not
+     * scored in the middle of an exchange
+     */
+    private int quiesce(GameState state, int alpha, int beta, int ply) {
+        if (state.isGameOver()) return terminalScore(state, ply);
+        if (checkTime()) return 0;
+
+        int standPat = Evaluation.evaluate(state);
+        if (standPat >= beta || ply >= MAX_PLY) return standPat;
+        if (standPat > alpha) alpha = standPat;
+
+        MoveList list = lists[ply];
+        MoveGenerator.generate(state, list);
+        int[] moveScores = scores(ply, list);
+        int captures = 0;
+        for (int i = 0; i < list.size(); i++) {
+            int move = list.get(i);
+            if (isCapture(state, move)) {
+                list.set(captures, move);
+                moveScores[captures++] = materialGain(state, move);
+            }
+        }
+
+        for (int i = 0; i < captures; i++) {
+            int move = pickNext(list, moveScores, i, captures);
+            state.makeMove(move);
+            int score = -quiesce(state, -beta, -alpha, ply + 1);
+            state.unmakeMove();
+            if (stopped) return 0;
+
+            if (score > alpha) {
+                alpha = score;
+                if (alpha >= beta) break;
+            }
+        }
+        return alpha;
+    }
+
+    /**
+     * count a node and stop the search once the time is up
+     * @return true if the search has been stopped
+     */
+    private boolean checkTime() {
+        if ((++nodes & 2047) == 0 && System.nanoTime() > deadline) stopped = true;
+        return stopped;
+    }
+
+    /**
+     * score of a finished game for the side to move
+     */
+    private static int terminalScore(GameState state, int ply) {
+        int result = state.getResult();
+        if (result == GameState.DRAW) return 0;
+        int winner = result == GameState.WHITE_WINS ? GameState.WHITE : GameState.BLACK;
+        return winner == state.getSideToMove() ? WIN - ply : -(WIN - ply);
+    }
+
+    // ===== move ordering =====
+
+    /**
+     * check if a move takes a piece with a plain move (en passant, spear and charge included)
+     */
+    private static boolean isCapture(GameState state, int move) {
+        int kind = Move.kind(move);
+        if (kind == Move.EN_PASSANT) return true;
+        if (kind != Move.NORMAL && kind != Move.SPEAR && kind != Move.CHARGE) return false;
+        return !state.isEmpty(Move.to(move));
+    }
+
+    /**
+     * give every move a sort key: the table move, then moves expected to win material
+     * (MVV-LVA), then killers, then quiet moves by history, then moves that lose material
+     */
+    private void scoreMoves(GameState state, MoveList list, int[] moveScores, int ttMove, int ply) {
+        int side = state.getSideToMove();
+        for (int i = 0; i < list.size(); i++) {
+            int move = list.get(i);
+            if (ordering == NO_ORDERING) {
+                moveScores[i] = 0;
+                continue;
+            }
+            if (move == ttMove) {
+                moveScores[i] = INFINITY;
+                continue;
+            }
+            int gain = materialGain(state, move);
+            if (gain > 0) {
+                // most valuable victim first, least valuable attacker breaks ties
+                int attacker = Evaluation.pieceValue(state.typeAt(Move.from(move)));
+                moveScores[i] = GOOD_CAPTURE + 16 * gain - attacker / 16;
+            }
+            else if (gain < 0) moveScores[i] = gain - HISTORY_MAX;
+            else if (ordering == CAPTURE_ORDERING) moveScores[i] = 0;
+            else if (move == killers[ply][0]) moveScores[i] = KILLER + 1;
+            else if (move == killers[ply][1]) moveScores[i] = KILLER;
+            else moveScores[i] = history[side][Move.from(move)][Move.to(move)];
+        }
+    }
+
+    /**
+     * Material a move is expected to remove from the enemy, less any of its own
+     * Area abilities count every piece in their area, bombs weighted like Evaluation
+     * weighs a fresh bomb, and promotions count what the recruit turns into
+     */
+    private static int materialGain(GameState state, int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int color = state.colorAt(from);
+        long enemy = state.getOccupancy(1 - color);
+        int gain = 0;
+        switch (Move.kind(move)) {
+            case Move.NORMAL:
+            case Move.SPEAR:
+                if (!state.isEmpty(to)) gain = valueOf(state, 1L << to);
+                break;
+            case Move.EN_PASSANT:
+                gain = Evaluation.pieceValue(GameState.ROYAL_RECRUITS);
+                break;
+            case Move.CHARGE:
+                if (!state.isEmpty(to)) gain = valueOf(state, (1L << to) | (Bitboards.ORTHOGONAL_NEIGHBORS[to] & enemy));
+                break;
+            case Move.SLASH:
+                long slashed = Bitboards.SLASH[color][from];
+                gain = valueOf(state, slashed & enemy) - valueOf(state, slashed & state.getOccupancy(color));
+                break;
+            case Move.SNIPE:
+                int target = state.snipeTarget(from);
+                if (target != GameState.EMPTY && state.colorAt(target) != color) gain = valueOf(state, 1L << target);
+                break;
+            case Move.BOMB:
+                gain = valueOf(state, Bitboards.BLAST[to] & enemy) * Evaluation.bombThreat(GameState.BOMB_FUSE) / 100;
+                break;
+        }
+        int promotion = Move.promotion(move);
+        if (promotion != GameState.EMPTY) {
+            gain += Evaluation.pieceValue(promotion) - Evaluation.pieceValue(GameState.ROYAL_RECRUITS);
+        }
+        return gain;
+    }
+
+    /**
+     * total material value of the pieces on a set of squares
+     */
+    private static int valueOf(GameState state, long squares) {
+        int value = 0;
+        for (long m = squares; m != 0; m &= m - 1) {
+            value += Evaluation.pieceValue(state.typeAt(Long.numberOfTrailingZeros(m)));
+        }
+        return value;
+    }
+
+    /**
+     * a quiet move caused a cutoff: make it a killer at this ply and raise its history
+     */
+    private void rememberCutoff(GameState state, int move, int depth, int ply) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] counts = history[state.getSideToMove()][Move.from(move)];
+        counts[Move.to(move)] += depth * depth;
+        if (counts[Move.to(move)] >= HISTORY_MAX) ageHistory();
+    }
+
+    /**
+     * halve every history score
+     */
+    private void ageHistory() {
+        for (int[][] side : history) {
+            for (int[] from : side) {
+                for (int to = 0; to < from.length; to++) {
+                    from[to] /= 2;
+                }
+            }
+        }
+    }
+
+    /**
+     * the move scores for a ply, grown along with a move list that outgrew them
+     */
+    private int[] scores(int ply, MoveList list) {
+        if (scores[ply].length < list.size()) scores[ply] = new int[list.capacity()];
+        return scores[ply];
+    }
+
+    private static int pickNext(MoveList list, int[] moveScores, int index) {
+        return pickNext(list, moveScores, index, list.size());
+    }
+
+    /**
+     * move the highest scoring remaining move to index and return it
+     */
+    private static int pickNext(MoveList list, int[] moveScores, int index, int size) {
+        int best = index;
+        for (int i = index + 1; i < size; i++) {
+            if (moveScores[i] > moveScores[best]) best = i;
+        }
+        if (best != index) {
+            list.swap(index, best);
+            int tmp = moveScores[index];
+            moveScores[index] = moveScores[best];
+            moveScores[best] = tmp;
+        }
+        return list.get(index);
+    }
+
+    // ===== transposition table scores =====
+
+    /**
+     * win scores are stored relative to the position, not the root
+     */
+    private static int toTable(int score, int ply) {
+        if (score >= WIN_BOUND) return score + ply;
+        if (score <= -WIN_BOUND) return score - ply;
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= WIN_BOUND) return score - ply;
+        if (score <= -WIN_BOUND) return score + ply;
+        return score;
+    }
+
+    // ===== results =====
+
+    /**
+     * stop a running search from another thread, it returns its best move so far
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * @return int score of the best move for the side to move, in centipawn-like units
+     */
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    /**
+     * @return int depth of the last iteration that finished
+     */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+}
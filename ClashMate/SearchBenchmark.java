@@ -0,0 +1,60 @@
+/**
+ * Speedup benchmark for ParallelSearch
+ * Times a search of the standard GridWorld opening to a fixed depth with 1, 2, 4, 8 and 16
+ * threads, starting from an empty transposition table each time, and reports time to depth,
+ * nodes/second and the speedup over one thread.
+ *
+ * Run with:
+ *     java SearchBenchmark [depth] [runs]
+ *
+ * @author Saiful Shaik
+ * @version 2/14/2026
+ */
+public class SearchBenchmark
+{
+    private static final int[] THREADS = { 1, 2, 4, 8, 16 };
+    private static final int DEFAULT_DEPTH = 6;
+    private static final int DEFAULT_RUNS = 3;
+    private static final int TABLE_MEGABYTES = 64;
+
+    // long enough that only the depth limit stops the search
+    private static final long NO_TIME_LIMIT = 24L * 60 * 60 * 1000;
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_RUNS;
+        GameState start = GameState.standard(1);
+
+        System.out.println("time to depth " + depth + " from the opening, best of " + runs
+            + " (" + Runtime.getRuntime().availableProcessors() + " cores)");
+
+        // warm up the JIT on one thread
+        ParallelSearch warmup = new ParallelSearch(1, TABLE_MEGABYTES);
+        warmup.search(start, depth - 1, NO_TIME_LIMIT);
+        warmup.shutdown();
+
+        double baseline = 0;
+        for (int threads : THREADS) {
+            ParallelSearch search = new ParallelSearch(threads, TABLE_MEGABYTES);
+            long bestTime = Long.MAX_VALUE;
+            long nodes = 0;
+            int move = Move.NONE;
+            for (int run = 0; run < runs; run++) {
+                search.clearTable();
+                long begin = System.nanoTime();
+                move = search.search(start, depth, NO_TIME_LIMIT);
+                long elapsed = System.nanoTime() - begin;
+                if (elapsed < bestTime) {
+                    bestTime = elapsed;
+                    nodes = search.getNodes();
+                }
+            }
+            search.shutdown();
+
+            double seconds = bestTime / 1e9;
+            if (threads == 1) baseline = seconds;
+            System.out.println(String.format("%2d threads: %8.3fs %,14d nodes %,12.0f nodes/s  speedup %5.2fx  %s",
+                threads, seconds, nodes, nodes / seconds, baseline / seconds, Move.toString(move)));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+import greenfoot.*;  // (GreenfootImage, Color)
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shared cache of the piece images
+ * Each piece image is taken from the Atlas and scaled once per size, then the same image is
+ * handed to every piece of that type and colour. Pieces made mid-game (summoned skeletons,
+ * promotions, the board set up again for "play again") so never wait on image loading.
+ *
+ * The images are shared, so nothing may draw on or scale them. Anything that needs a changed
+ * image works on a copy, or asks for a framed one here, which is cached the same way.
+ *
+ * @author Saiful Shaik
+ * @version 2/19/2026
+ */
+public class SpriteCache
+{
+    private static final String[] NAMES = {
+        "DarkPrince", "Knight", "Musketeer", "RoyalGiant", "Skeleton", "Witch", "RoyalRecruits"
+    };
+
+    // key: size, frame colour, type and colour packed into a long (see key)
+    private static final Map<Long, GreenfootImage> images = new HashMap<>();
+
+    private SpriteCache() {
+    }
+
+    /**
+     * load every piece image at a size, e.g. while a world is being set up
+     */
+    public static void preload(int size) {
+        for (Piece.PieceType type : Piece.PieceType.values()) {
+            get(type, true, size);
+            get(type, false, size);
+        }
+    }
+
+    /**
+     * The image of a piece, scaled to a square
+     *
+     * @param type type of piece
+     * @param isWhite whether the piece is white
+     * @param size width and height in pixels
+     * @return GreenfootImage the shared image, which must not be changed
+     */
+    public static GreenfootImage get(Piece.PieceType type, boolean isWhite, int size) {
+        long key = key(type, isWhite, size, 0);
+        GreenfootImage image = images.get(key);
+        if (image == null) {
+            image = new GreenfootImage(Atlas.get(fileName(type, isWhite)));
+            image.scale(size, size);
+            images.put(key, image);
+        }
+        return image;
+    }
+
+    /**
+     * The image of a piece with a one pixel frame around its edge (the piece hitbox)
+     *
+     * @param type type of piece
+     * @param isWhite whether the piece is white
+     * @param size width and height in pixels
+     * @param frame colour of the frame
+     * @return GreenfootImage the shared image, which must not be changed
+     */
+    public static GreenfootImage framed(Piece.PieceType type, boolean isWhite, int size, Color frame) {
+        int rgba = frame.getAlpha() << 24 | frame.getRed() << 16 | frame.getGreen() << 8 | frame.getBlue();
+        long key = key(type, isWhite, size, rgba);
+        GreenfootImage image = images.get(key);
+        if (image == null) {
+            image = new GreenfootImage(get(type, isWhite, size));
+            image.setColor(frame);
+            image.drawRect(0, 0, size - 1, size - 1);
+            images.put(key, image);
+        }
+        return image;
+    }
+
+    /**
+     * file name of the image of a piece, in the images folder and the Atlas
+     */
+    public static String fileName(Piece.PieceType type, boolean isWhite) {
+        return (isWhite ? "W" : "B") + NAMES[type.ordinal()] + ".png";
+    }
+
+    /**
+     * frame colour in the top 32 bits (0 for none, which has no alpha), then size, type and colour
+     */
+    private static long key(Piece.PieceType type, boolean isWhite, int size, int frame) {
+        return (long) frame << 32 | (long) size << 8 | type.ordinal() << 1 | (isWhite ? 1 : 0);
+    }
+}
@@ -0,0 +1,852 @@
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Endgame tablebases for positions with a few pieces left
+ * A side with no army left loses and one piece each is a draw (see GameState.updateResult),
+ * so once only three or four pieces are left every position can be solved outright. Each
+ * table covers one material signature, e.g. "NMvd" for white knight and musketeer against a
+ * black dark prince, at one elixir multiplier, and holds for every placement of the pieces,
+ * side to move and elixir bank of each side, how many plies the game lasts with perfect play.
+ *
+ * Tables are generated by repeated passes over every position (the abilities make moves hard
+ * to run backwards): pass k finds the positions won in k plies (a move to a position the
+ * opponent loses in k - 1) and lost in k plies (every move leads to a position the opponent
+ * wins in under k). Entries of the tables reached by captures and promotions are held to the
+ * same rule, so a loss in 7 plies there only counts once pass 7 has run. Passes run on every
+ * core until one finds nothing new and every distance in those tables has been passed;
+ * whatever is left is a draw. Signatures reached by captures and promotions are generated first.
+ *
+ * Some moves leave the tables: a royal giant's bomb leaves a pending bomb, and a witch's
+ * summon can bring more pieces than a table holds. Their results are unknown, so a position is
+ * only scored a loss when every move is known to lose, and a position that is not won but has
+ * a move into the unknown is stored as unknown rather than a draw. En passant is left out.
+ *
+ * On disk a table is a header and the entries for each side to move and elixir pair,
+ * DEFLATE-compressed one slice at a time; a slice is read and inflated the first time a probe
+ * needs it, and slices that have not been probed for a while are dropped again once more than
+ * CACHE_BYTES are inflated. A table also answers for the colour-flipped signature, by mirroring
+ * the board. Which table holds each material is worked out once, so probing allocates nothing.
+ *
+ *     java Tablebase generate <signature> [multiplier] [threads]
+ *     java Tablebase probe <position text>
+ *
+ * @author Saiful Shaik
+ * @version 2/19/2026
+ */
+public class Tablebase
+{
+    public static final String DIRECTORY = "tablebases";
+
+    // most pieces a table can hold (four need about 4 GB of memory to generate)
+    public static final int MAX_PIECES = 4;
+
+    // probe result for positions no table covers
+    public static final int NO_RESULT = Integer.MIN_VALUE;
+
+    // inflated slices kept in memory across every table (a four piece slice is 16 MB)
+    public static final long CACHE_BYTES = 128L << 20;
+    private static final long GENERATION_CACHE_BYTES = 1L << 30;
+
+    // entries: 0 a draw, odd plies until the side to move wins, even plies until it loses
+    private static final int DRAW = 0;
+    private static final int UNKNOWN = 254;
+    static final int MAX_DISTANCE = 253;
+
+    // generation only: the opponent has already lost, the move took its last piece
+    private static final int LOST_NOW = 255;
+
+    private static final int MAGIC = 0x434D5442;
+    private static final int ELIXIR_VALUES = GameState.MAX_ELIXIR + 1;
+    private static final int SLICES = 2 * ELIXIR_VALUES * ELIXIR_VALUES;
+
+    // a material is up to MAX_PIECES digits, one per piece, each its colour and type (see material)
+    private static final int PIECE_KINDS = 2 * GameState.PIECE_TYPES + 1;
+    private static final int MATERIALS = (int) Math.pow(PIECE_KINDS, MAX_PIECES);
+    private static final int MULTIPLIERS = 3;
+
+    // recruits can be promoted into these
+    private static final int[] PROMOTION_TYPES = {
+        GameState.DARK_PRINCE, GameState.KNIGHT, GameState.MUSKETEER, GameState.ROYAL_GIANT, GameState.WITCH
+    };
+
+    // stands in for a table that is not on disk
+    private static final Table MISSING = new Table(null, null, 0, 0, null);
+    private static final Source NOWHERE = new Source(MISSING, false);
+
+    private final String directory;
+    private final Map<String, Table> tables = new ConcurrentHashMap<>();
+    private final SliceCache cache;
+
+    // by multiplier and material (see material), where its positions are looked up; null
+    // if the folder holds no tables at all
+    private final AtomicReferenceArray<Source> sources;
+
+    /**
+     * One table file, with its slices inflated as they are needed
+     */
+    private static final class Table
+    {
+        final File file;
+        final SliceCache cache;
+        final int pieces;
+        final int[] lengths;
+        final long[] offsets;
+        final AtomicReferenceArray<byte[]> slices;
+
+        // probed since the cache last swept past the slice
+        final boolean[] used;
+
+        Table(File file, SliceCache cache, int pieces, long start, int[] lengths) {
+            this.file = file;
+            this.cache = cache;
+            this.pieces = pieces;
+            this.lengths = lengths;
+            offsets = new long[SLICES];
+            slices = new AtomicReferenceArray<>(SLICES);
+            used = new boolean[SLICES];
+            for (int i = 0; lengths != null && i < SLICES; i++) {
+                offsets[i] = start;
+                start += lengths[i];
+            }
+        }
+
+        /**
+         * entry for a position index in a slice, reading the slice in first if needed
+         * @return int the entry, or UNKNOWN if the file cannot be read
+         */
+        int entry(int slice, int index) {
+            byte[] values = slices.get(slice);
+            if (values == null) {
+                values = cache.load(this, slice);
+            }
+            else if (!used[slice]) {
+                used[slice] = true;
+            }
+            return values == null ? UNKNOWN : values[index] & 0xFF;
+        }
+
+        /**
+         * read and inflate a slice from the file
+         * @return byte[] the entries, or null if the file cannot be read
+         */
+        byte[] read(int slice) {
+            try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+                byte[] packed = new byte[lengths[slice]];
+                in.seek(offsets[slice]);
+                in.readFully(packed);
+                byte[] values = new byte[1 << (6 * pieces)];
+                Inflater inflater = new Inflater();
+                inflater.setInput(packed);
+                inflater.inflate(values);
+                inflater.end();
+                return values;
+            }
+            catch (IOException | DataFormatException e) {
+                System.err.println("Error reading tablebase " + file + ": " + e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    /**
+     * The inflated slices of every table, up to a budget of bytes
+     * Past the budget a clock sweep drops the oldest slice not probed since the sweep last
+     * passed it, which is close to dropping the least recently used one without probes
+     * having to do more than set a flag.
+     */
+    private static final class SliceCache
+    {
+        private final long budget;
+        private final ArrayDeque<Table> tables = new ArrayDeque<>();
+        private final ArrayDeque<Integer> slices = new ArrayDeque<>();
+        private long bytes;
+
+        SliceCache(long budget) {
+            this.budget = budget;
+        }
+
+        synchronized byte[] load(Table table, int slice) {
+            byte[] values = table.slices.get(slice);
+            if (values != null) return values;
+            values = table.read(slice);
+            if (values == null) return null;
+
+            while (bytes + values.length > budget && !tables.isEmpty()) {
+                Table oldTable = tables.poll();
+                int oldSlice = slices.poll();
+                if (oldTable.used[oldSlice]) {
+                    // probed since last time, so it gets another round
+                    oldTable.used[oldSlice] = false;
+                    tables.add(oldTable);
+                    slices.add(oldSlice);
+                }
+                else {
+                    bytes -= oldTable.slices.get(oldSlice).length;
+                    oldTable.slices.set(oldSlice, null);
+                }
+            }
+            table.used[slice] = true;
+            table.slices.set(slice, values);
+            tables.add(table);
+            slices.add(slice);
+            bytes += values.length;
+            return values;
+        }
+    }
+
+    /**
+     * The table a material is looked up in, and whether its colours are flipped there
+     */
+    private static final class Source
+    {
+        final Table table;
+        final boolean flip;
+
+        Source(Table table, boolean flip) {
+            this.table = table;
+            this.flip = flip;
+        }
+    }
+
+    /**
+     * @param directory folder holding the table files (it need not exist)
+     */
+    public Tablebase(String directory) {
+        this(directory, CACHE_BYTES);
+    }
+
+    /**
+     * @param directory folder holding the table files (it need not exist)
+     * @param cacheBytes most bytes of inflated slices to keep in memory
+     */
+    public Tablebase(String directory, long cacheBytes) {
+        this.directory = directory;
+        cache = new SliceCache(cacheBytes);
+        String[] files = new File(directory).list((folder, name) -> name.endsWith(".tb"));
+        sources = files == null || files.length == 0 ? null : new AtomicReferenceArray<>(MULTIPLIERS * MATERIALS);
+    }
+
+    // ===== probing =====
+
+    /**
+     * Look up a position
+     *
+     * @param state the position
+     * @return int Search.WIN less the plies to the win if the side to move wins, the negative
+     *         of that if it loses, 0 for a draw, or NO_RESULT if no table covers the position
+     */
+    public int probe(GameState state) {
+        if (state.isGameOver() || !isCovered(state)) return NO_RESULT;
+        return toScore(lookup(state));
+    }
+
+    /**
+     * Pick the move that wins fastest, or draws, or loses slowest
+     *
+     * @param state the position (restored before returning)
+     * @return int the packed move, or Move.NONE if the tables cannot say
+     */
+    public int bestMove(GameState state) {
+        if (state.isGameOver() || !isCovered(state)) return Move.NONE;
+        MoveList list = new MoveList();
+        MoveGenerator.generate(state, list);
+        int best = Move.NONE;
+        int bestScore = -Search.INFINITY;
+        boolean unknown = false;
+        for (int i = 0; i < list.size(); i++) {
+            int move = list.get(i);
+            int mover = state.getSideToMove();
+            state.makeMove(move);
+            int score;
+            if (state.isGameOver()) {
+                int result = state.getResult();
+                score = result == GameState.DRAW ? 0
+                    : (result == GameState.WHITE_WINS) == (mover == GameState.WHITE) ? Search.WIN - 1 : -Search.WIN;
+            }
+            else {
+                int reply = isCovered(state) ? toScore(lookup(state)) : NO_RESULT;
+                // one ply further from the end, seen from this side
+                score = reply == NO_RESULT ? NO_RESULT : reply > 0 ? -(reply - 1) : reply < 0 ? -reply - 1 : 0;
+            }
+            state.unmakeMove();
+
+            if (score == NO_RESULT) {
+                unknown = true;
+            }
+            else if (score > bestScore) {
+                bestScore = score;
+                best = move;
+            }
+        }
+        // an unknown move might be better than anything short of a win
+        if (unknown && bestScore <= 0) return Move.NONE;
+        return best;
+    }
+
+    /**
+     * @return true if the position is small enough and free of bombs and special rights
+     */
+    private static boolean isCovered(GameState state) {
+        long pieces = state.getOccupancy(GameState.WHITE) | state.getOccupancy(GameState.BLACK);
+        return Long.bitCount(pieces) <= MAX_PIECES && state.getBombCount() == 0
+            && state.getCastlingRights() == 0 && state.getEnPassantSquare() == GameState.EMPTY;
+    }
+
+    private static int toScore(int entry) {
+        if (entry == DRAW) return 0;
+        if (entry == UNKNOWN) return NO_RESULT;
+        return entry % 2 == 1 ? Search.WIN - entry : -(Search.WIN - entry);
+    }
+
+    /**
+     * entry for a position from whichever table holds it, flipping colours if needed
+     * @return int the entry, UNKNOWN if there is no table
+     */
+    private int lookup(GameState state) {
+        if (sources == null) return UNKNOWN;
+        int material = material(state);
+        Source source = sources.get(material);
+        if (source == null) {
+            source = source(state);
+            sources.set(material, source);
+        }
+        if (source.table == MISSING) return UNKNOWN;
+        return source.table.entry(slice(state, source.flip), index(state, source.flip));
+    }
+
+    /**
+     * find the table for a position's material, the first time that material is probed
+     */
+    private Source source(GameState state) {
+        String white = letters(state, GameState.WHITE);
+        String black = letters(state, GameState.BLACK);
+        int multiplier = state.getElixirMultiplier();
+        Table table = table(name(white, black, multiplier));
+        if (table != MISSING) return new Source(table, false);
+        table = table(name(black, white, multiplier));
+        if (table != MISSING) return new Source(table, true);
+        return NOWHERE;
+    }
+
+    private Table table(String name) {
+        return tables.computeIfAbsent(name, n -> open(new File(directory, n), cache));
+    }
+
+    /**
+     * a number for the multiplier and the pieces of each colour and type, for a covered position
+     */
+    private static int material(GameState state) {
+        int material = 0;
+        for (int color = 0; color < 2; color++) {
+            for (int type = 0; type < GameState.PIECE_TYPES; type++) {
+                for (int i = Long.bitCount(state.getPieces(color, type)); i > 0; i--) {
+                    material = material * PIECE_KINDS + color * GameState.PIECE_TYPES + type + 1;
+                }
+            }
+        }
+        return (state.getElixirMultiplier() - 1) * MATERIALS + material;
+    }
+
+    /**
+     * read a table's header, MISSING if there is no such file
+     */
+    private static Table open(File file, SliceCache cache) {
+        if (!file.exists()) return MISSING;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) throw new IOException("not a tablebase");
+            int pieces = in.readInt();
+            in.readInt();
+            int[] lengths = new int[SLICES];
+            for (int i = 0; i < SLICES; i++) {
+                lengths[i] = in.readInt();
+            }
+            return new Table(file, cache, pieces, 3 * Integer.BYTES + SLICES * Integer.BYTES, lengths);
+        }
+        catch (IOException e) {
+            System.err.println("Error opening tablebase " + file + ": " + e.getMessage());
+            return MISSING;
+        }
+    }
+
+    // ===== indexing =====
+    // a slice for each side to move and elixir pair, and in it 6 bits per piece for its square,
+    // white's pieces first then black's, each in type order
+
+    private static int slice(GameState state, boolean flip) {
+        int side = state.getSideToMove();
+        int white = state.getElixir(GameState.WHITE);
+        int black = state.getElixir(GameState.BLACK);
+        if (flip) return slice(1 - side, black, white);
+        return slice(side, white, black);
+    }
+
+    private static int slice(int side, int whiteElixir, int blackElixir) {
+        return (side * ELIXIR_VALUES + whiteElixir) * ELIXIR_VALUES + blackElixir;
+    }
+
+    /**
+     * Two identical pieces can go in either order, both give the same entry
+     */
+    private static int index(GameState state, boolean flip) {
+        int index = 0;
+        int shift = 0;
+        for (int side = 0; side < 2; side++) {
+            int color = flip ? 1 - side : side;
+            for (int type = 0; type < GameState.PIECE_TYPES; type++) {
+                for (long m = state.getPieces(color, type); m != 0; m &= m - 1) {
+                    int sq = Long.numberOfTrailingZeros(m);
+                    index |= (flip ? sq ^ 56 : sq) << shift;
+                    shift += 6;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * one colour's pieces as letters in type order
+     */
+    private static String letters(GameState state, int color) {
+        StringBuilder letters = new StringBuilder();
+        for (int type = 0; type < GameState.PIECE_TYPES; type++) {
+            for (int i = Long.bitCount(state.getPieces(color, type)); i > 0; i--) {
+                letters.append(Move.typeLetter(type));
+            }
+        }
+        return letters.toString();
+    }
+
+    private static String name(String white, String black, int multiplier) {
+        return white.toUpperCase() + "v" + black.toLowerCase() + "_x" + multiplier + ".tb";
+    }
+
+    // ===== generation =====
+
+    /**
+     * Generate the table for a signature, and first any it leads to by captures and promotions
+     *
+     * @param signature white's piece letters, "v", black's (e.g. "NMvd")
+     * @param multiplier elixir multiplier the table is for
+     * @param directory folder to write the tables to
+     * @param threads threads to work on
+     */
+    public static void generate(String signature, int multiplier, String directory, int threads) throws IOException {
+        int[][] sides = parseSignature(signature);
+        new File(directory).mkdirs();
+        ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            generate(sides[0], sides[1], multiplier, directory, Math.max(1, threads), workers);
+        }
+        finally {
+            workers.shutdown();
+        }
+    }
+
+    private static void generate(int[] white, int[] black, int multiplier, String directory, int threads,
+                                 ExecutorService workers) throws IOException {
+        for (int[][] next : reachable(white, black)) {
+            if (isTerminal(next[0], next[1]) || exists(next[0], next[1], multiplier, directory)) continue;
+            generate(next[0], next[1], multiplier, directory, threads, workers);
+        }
+        if (isTerminal(white, black) || exists(white, black, multiplier, directory)) return;
+        new Generator(white, black, multiplier, directory, threads, workers).run();
+    }
+
+    /**
+     * @return int[][] white's and black's piece types, sorted
+     */
+    private static int[][] parseSignature(String signature) {
+        int split = signature.indexOf('v');
+        if (split < 0) throw new IllegalArgumentException("signature needs a 'v': " + signature);
+        int[][] sides = { parseTypes(signature.substring(0, split)), parseTypes(signature.substring(split + 1)) };
+        if (sides[0].length + sides[1].length > MAX_PIECES) {
+            throw new IllegalArgumentException("at most " + MAX_PIECES + " pieces: " + signature);
+        }
+        return sides;
+    }
+
+    private static int[] parseTypes(String letters) {
+        int[] types = new int[letters.length()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = Move.typeOfLetter(letters.charAt(i));
+            if (types[i] == GameState.EMPTY) throw new IllegalArgumentException("unknown piece: " + letters.charAt(i));
+        }
+        Arrays.sort(types);
+        return types;
+    }
+
+    private static String letters(int[] types) {
+        StringBuilder letters = new StringBuilder();
+        for (int type : types) {
+            letters.append(Move.typeLetter(type));
+        }
+        return letters.toString();
+    }
+
+    private static boolean exists(int[] white, int[] black, int multiplier, String directory) {
+        return new File(directory, name(letters(white), letters(black), multiplier)).exists()
+            || new File(directory, name(letters(black), letters(white), multiplier)).exists();
+    }
+
+    /**
+     * @return true if positions with this material are already over (see GameState.updateResult)
+     */
+    private static boolean isTerminal(int[] white, int[] black) {
+        int whiteArmy = army(white);
+        int blackArmy = army(black);
+        return whiteArmy == 0 || blackArmy == 0 || (whiteArmy == 1 && blackArmy == 1);
+    }
+
+    private static int army(int[] types) {
+        int count = 0;
+        for (int type : types) {
+            if (type != GameState.SKELETON) count++;
+        }
+        return count;
+    }
+
+    /**
+     * every other signature a position can turn into by losing pieces and promoting recruits
+     */
+    private static List<int[][]> reachable(int[] white, int[] black) {
+        int[] all = new int[white.length + black.length];
+        System.arraycopy(white, 0, all, 0, white.length);
+        System.arraycopy(black, 0, all, white.length, black.length);
+
+        Set<String> seen = new HashSet<>();
+        List<int[][]> found = new ArrayList<>();
+        int[] choice = new int[all.length];
+        // per piece: 0 keep, 1 lose it, 2 and up promote a recruit
+        while (true) {
+            List<Integer> w = new ArrayList<>();
+            List<Integer> b = new ArrayList<>();
+            for (int i = 0; i < all.length; i++) {
+                if (choice[i] == 1) continue;
+                int type = choice[i] == 0 ? all[i] : PROMOTION_TYPES[choice[i] - 2];
+                (i < white.length ? w : b).add(type);
+            }
+            int[][] sides = { sorted(w), sorted(b) };
+            String key = letters(sides[0]) + "v" + letters(sides[1]);
+            if (!Arrays.equals(sides[0], white) || !Arrays.equals(sides[1], black)) {
+                if (seen.add(key)) found.add(sides);
+            }
+
+            // next combination
+            int i = 0;
+            while (i < all.length) {
+                int options = all[i] == GameState.ROYAL_RECRUITS ? 2 + PROMOTION_TYPES.length : 2;
+                if (++choice[i] < options) break;
+                choice[i++] = 0;
+            }
+            if (i == all.length) break;
+        }
+        return found;
+    }
+
+    private static int[] sorted(List<Integer> types) {
+        int[] array = new int[types.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = types.get(i);
+        }
+        Arrays.sort(array);
+        return array;
+    }
+
+    /**
+     * Works out one table in memory, then writes it out
+     */
+    private static final class Generator
+    {
+        private final int[] white;
+        private final int[] black;
+        private final int[] slotColor;
+        private final int[] slotType;
+        private final int pieces;
+        private final int multiplier;
+        private final String directory;
+        private final int threads;
+        private final ExecutorService workers;
+        private final byte[][] values;
+
+        // tables for the signatures this one leads to
+        private final Tablebase others;
+
+        // furthest entry seen in those tables, no pass can stop before it has been passed
+        private final AtomicInteger furthest = new AtomicInteger();
+
+        Generator(int[] white, int[] black, int multiplier, String directory, int threads, ExecutorService workers) {
+            this.white = white;
+            this.black = black;
+            this.multiplier = multiplier;
+            this.directory = directory;
+            this.threads = threads;
+            this.workers = workers;
+            pieces = white.length + black.length;
+            slotColor = new int[pieces];
+            slotType = new int[pieces];
+            for (int i = 0; i < pieces; i++) {
+                slotColor[i] = i < white.length ? GameState.WHITE : GameState.BLACK;
+                slotType[i] = i < white.length ? white[i] : black[i - white.length];
+            }
+            values = new byte[SLICES][1 << (6 * pieces)];
+            others = new Tablebase(directory, GENERATION_CACHE_BYTES);
+        }
+
+        void run() throws IOException {
+            String name = name(letters(white), letters(black), multiplier);
+            System.out.println("generating " + name);
+            long start = System.nanoTime();
+
+            int pass = 1;
+            while (pass <= MAX_DISTANCE) {
+                int decided = runPass(pass);
+                System.out.println(String.format("  pass %3d: %,d positions decided", pass, decided));
+                if (decided == 0 && pass > furthest.get()) break;
+                pass++;
+            }
+
+            // positions still open are draws, unless a move into the unknown might do better
+            int unknown;
+            do {
+                unknown = runPass(pass > MAX_DISTANCE ? -1 : 0);
+            } while (unknown > 0);
+
+            write(new File(directory, name));
+            System.out.println(String.format("  %s written in %.1f s", name, (System.nanoTime() - start) / 1e9));
+        }
+
+        /**
+         * one pass over every slice, split between the threads
+         * @param pass plies to decide, 0 to mark positions with unknown moves, -1 to mark every open one
+         * @return int positions changed
+         */
+        private int runPass(int pass) {
+            AtomicInteger nextSlice = new AtomicInteger();
+            AtomicInteger changed = new AtomicInteger();
+            List<Future<?>> running = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                running.add(workers.submit(() -> {
+                    Worker worker = new Worker();
+                    int slice;
+                    while ((slice = nextSlice.getAndIncrement()) < SLICES) {
+                        changed.addAndGet(worker.pass(slice, pass));
+                    }
+                    furthest.accumulateAndGet(worker.furthest, Math::max);
+                }));
+            }
+            for (Future<?> future : running) {
+                try {
+                    future.get();
+                }
+                catch (Exception e) {
+                    throw new IllegalStateException("tablebase worker failed", e);
+                }
+            }
+            return changed.get();
+        }
+
+        /**
+         * A thread's own board, set up for each position in turn
+         */
+        private final class Worker
+        {
+            private final GameState state = new GameState(multiplier);
+            private final MoveList list = new MoveList();
+            private final int[] placed = new int[pieces];
+            private final int[] squares = new int[pieces];
+
+            // furthest entry this thread has seen in the other tables
+            private int furthest;
+
+            Worker() {
+                Arrays.fill(placed, GameState.EMPTY);
+            }
+
+            int pass(int slice, int pass) {
+                int side = slice / (ELIXIR_VALUES * ELIXIR_VALUES);
+                state.setSideToMove(side);
+                state.setElixir(GameState.WHITE, slice / ELIXIR_VALUES % ELIXIR_VALUES);
+                state.setElixir(GameState.BLACK, slice % ELIXIR_VALUES);
+
+                byte[] entries = values[slice];
+                int changed = 0;
+                for (int index = 0; index < entries.length; index++) {
+                    if (entries[index] != DRAW || !setUp(index) || state.isGameOver()) continue;
+                    int entry = pass > 0 ? decide(pass) : pass == 0 ? markUnknown() : UNKNOWN;
+                    if (entry != DRAW) {
+                        entries[index] = (byte) entry;
+                        changed++;
+                    }
+                }
+                return changed;
+            }
+
+            /**
+             * put the pieces on the squares of a position index
+             * @return false if two pieces share a square
+             */
+            private boolean setUp(int index) {
+                for (int i = 0; i < pieces; i++) {
+                    squares[i] = (index >>> (6 * i)) & 63;
+                    for (int j = 0; j < i; j++) {
+                        if (squares[j] == squares[i]) return false;
+                    }
+                }
+                for (int i = 0; i < pieces; i++) {
+                    if (placed[i] != squares[i] && placed[i] != GameState.EMPTY) state.remove(placed[i]);
+                }
+                for (int i = 0; i < pieces; i++) {
+                    if (placed[i] != squares[i]) {
+                        state.put(squares[i], slotType[i], slotColor[i]);
+                        placed[i] = squares[i];
+                    }
+                }
+                return true;
+            }
+
+            /**
+             * a win in pass plies if a move leaves the opponent lost in pass - 1, a loss in pass
+             * plies if every move leaves the opponent winning in fewer
+             */
+            private int decide(int pass) {
+                MoveGenerator.generate(state, list);
+                boolean allLose = true;
+                for (int i = 0; i < list.size(); i++) {
+                    state.makeMove(list.get(i));
+                    int reply = successor(pass);
+                    state.unmakeMove();
+
+                    if (reply == LOST_NOW || (reply != DRAW && reply == pass - 1 && reply % 2 == 0)) return pass;
+                    if (reply == DRAW || reply == UNKNOWN || reply % 2 == 0) allLose = false;
+                }
+                return allLose && pass % 2 == 0 ? pass : DRAW;
+            }
+
+            /**
+             * unknown if a move leads somewhere unknown, otherwise still a draw
+             */
+            private int markUnknown() {
+                MoveGenerator.generate(state, list);
+                for (int i = 0; i < list.size(); i++) {
+                    state.makeMove(list.get(i));
+                    int reply = successor(Integer.MAX_VALUE);
+                    state.unmakeMove();
+                    if (reply == UNKNOWN) return UNKNOWN;
+                }
+                return DRAW;
+            }
+
+            /**
+             * entry of the position after a move, for the opponent
+             * Entries decided in this pass or later count as a draw for now, both in this table
+             * and in the others (those are finished, but a loss in 7 plies there is only a win
+             * in 8 here, and must wait for pass 8 like one in this table)
+             */
+            private int successor(int pass) {
+                if (state.isGameOver()) {
+                    // only the mover can have ended it, by taking the last piece or leaving one each
+                    return state.getResult() == GameState.DRAW ? DRAW : LOST_NOW;
+                }
+                if (state.getBombCount() > 0 || state.getCastlingRights() != 0) return UNKNOWN;
+                int entry;
+                if (sameMaterial()) {
+                    entry = values[slice(state, false)][index(state, false)] & 0xFF;
+                }
+                else {
+                    if (!isCovered(state)) return UNKNOWN;
+                    entry = others.lookup(state);
+                    if (entry != UNKNOWN && entry > furthest) furthest = entry;
+                }
+                return entry != UNKNOWN && entry >= pass ? DRAW : entry;
+            }
+
+            private boolean sameMaterial() {
+                for (int type = 0; type < GameState.PIECE_TYPES; type++) {
+                    if (Long.bitCount(state.getPieces(GameState.WHITE, type)) != count(white, type)) return false;
+                    if (Long.bitCount(state.getPieces(GameState.BLACK, type)) != count(black, type)) return false;
+                }
+                return true;
+            }
+        }
+
+        /**
+         * the header, then every slice compressed
+         */
+        private void write(File file) throws IOException {
+            byte[][] packed = new byte[SLICES][];
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            byte[] buffer = new byte[values[0].length + 1024];
+            long[] counts = new long[4];
+            for (int i = 0; i < SLICES; i++) {
+                deflater.reset();
+                deflater.setInput(values[i]);
+                deflater.finish();
+                int length = 0;
+                while (!deflater.finished()) {
+                    length += deflater.deflate(buffer, length, buffer.length - length);
+                }
+                packed[i] = Arrays.copyOf(buffer, length);
+                for (byte value : values[i]) {
+                    int entry = value & 0xFF;
+                    counts[entry == DRAW ? 0 : entry == UNKNOWN ? 3 : 1 + (entry + 1) % 2]++;
+                }
+            }
+            deflater.end();
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(pieces);
+                out.writeInt(multiplier);
+                for (byte[] slice : packed) {
+                    out.writeInt(slice.length);
+                }
+                for (byte[] slice : packed) {
+                    out.write(slice);
+                }
+            }
+            System.out.println(String.format("  %,d wins, %,d losses, %,d unknown, %,d bytes on disk",
+                counts[1], counts[2], counts[3], file.length()));
+        }
+    }
+
+    private static int count(int[] types, int type) {
+        int count = 0;
+        for (int t : types) {
+            if (t == type) count++;
+        }
+        return count;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 2 && args[0].equals("generate")) {
+            int multiplier = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+            int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+            generate(args[1], multiplier, DIRECTORY, threads);
+        }
+        else if (args.length >= 2 && args[0].equals("probe")) {
+            String text = String.join(" ", Arrays.copyOfRange(args, 1, args.length));
+            GameState state = GameState.fromText(text);
+            Tablebase tablebase = new Tablebase(DIRECTORY);
+            int score = tablebase.probe(state);
+            if (score == NO_RESULT) System.out.println("not in the tablebases");
+            else if (score == 0) System.out.println("draw");
+            else System.out.println((score > 0 ? "win" : "loss") + " in " + (Search.WIN - Math.abs(score)) + " plies");
+            int move = tablebase.bestMove(state);
+            if (move != Move.NONE) System.out.println("best move " + Move.toString(move));
+        }
+        else {
+            System.out.println("usage: java Tablebase generate <signature> [multiplier] [threads]");
+            System.out.println("       java Tablebase probe <position text>");
+        }
+    }
+}
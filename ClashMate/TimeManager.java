@@ -0,0 +1,176 @@
+/**
+ * Decides how long the engine thinks about one move
+ * Made fresh for every move from the time left on the player's clock, how far the game
+ * has got and how many moves the position has, and gives two limits:
+ *  - the soft limit, after which no new iteration of the search is started
+ *  - the hard limit, at which the search is stopped even part way through an iteration
+ *
+ * After each iteration the search asks shouldStop. The more iterations in a row agree on
+ * the best move, the sooner it stops; a score that has just dropped buys some more time.
+ * The next iteration usually costs several times the ones before it, so one is only started
+ * while there is a fair chance of finishing it.
+ *
+ * GameTimer counts down in frames, so a few tenths of a second are always held back for the
+ * frame it takes GridWorld to notice the move and for the clock running ahead of real time.
+ *
+ * While pondering (searching on the opponent's time) there are no limits yet. On a ponder hit
+ * the limits are worked out from the clock as usual, but the time already spent pondering
+ * counts towards the soft limit, so a well pondered move is played almost at once. The hard
+ * limit still runs from the hit, the clock was not running while pondering.
+ *
+ * @author Saiful Shaik
+ * @version 2/19/2026
+ */
+public class TimeManager
+{
+    // moves the rest of the game is expected to take, early on and at the least
+    private static final int MOVES_TO_GO = 40;
+    private static final int MIN_MOVES_TO_GO = 20;
+
+    // held back from every budget, and the least time ever given to a move
+    private static final long OVERHEAD_MILLIS = 300;
+    private static final long MIN_MILLIS = 20;
+
+    // the hard limit is at most this many soft limits, and at most this share of the clock
+    private static final int HARD_FACTOR = 4;
+    private static final int HARD_SHARE = 5;
+
+    // position complexity scales the soft limit between these, by moves besides bombs
+    private static final double SIMPLE = 0.7;
+    private static final double COMPLEX = 1.3;
+    private static final int BUSY_POSITION_MOVES = 40;
+
+    // a score drop this big between iterations is worth extra time
+    private static final int SCORE_DROP = 40;
+
+    // an iteration is only started while the time used is below this share of the budget
+    private static final double START_SHARE = 0.6;
+
+    // pondering has no limits until the hit
+    private static final long PONDER_MILLIS = 24L * 60 * 60 * 1000;
+
+    private final long start;
+    private long softMillis;
+    private long hardMillis;
+    private boolean pondering;
+    private boolean hit;
+
+    private int lastMove = Move.NONE;
+    private int lastScore;
+    private int stableIterations;
+    private boolean scoreDropped;
+
+    /**
+     * Work out the limits for the side to move
+     *
+     * @param millisLeft time left on its clock
+     * @param state the position to be searched
+     */
+    public TimeManager(long millisLeft, GameState state) {
+        start = System.nanoTime();
+        setLimits(millisLeft, state);
+    }
+
+    private TimeManager() {
+        start = System.nanoTime();
+        softMillis = PONDER_MILLIS;
+        hardMillis = PONDER_MILLIS;
+        pondering = true;
+    }
+
+    /**
+     * @return TimeManager for a ponder search, which runs until it is stopped or hit
+     */
+    public static TimeManager forPondering() {
+        return new TimeManager();
+    }
+
+    /**
+     * The move pondered on was played: from now on keep to the limits for the clock
+     *
+     * @param millisLeft time left on the clock of the side to move
+     * @param state the position being searched
+     */
+    public synchronized void ponderHit(long millisLeft, GameState state) {
+        setLimits(millisLeft, state);
+        pondering = false;
+        hit = true;
+    }
+
+    /**
+     * @return boolean true if this was made for pondering and ponderHit has been called since
+     */
+    public synchronized boolean wasHit() {
+        return hit;
+    }
+
+    private void setLimits(long millisLeft, GameState state) {
+        long available = Math.max(0, millisLeft - OVERHEAD_MILLIS);
+        int movesToGo = Math.max(MIN_MOVES_TO_GO, MOVES_TO_GO - state.getPlyCount() / 4);
+
+        double complexity = SIMPLE + (COMPLEX - SIMPLE) * Math.min(1.0, (double) quietMoves(state) / BUSY_POSITION_MOVES);
+        long soft = (long) (available / movesToGo * complexity);
+        long hard = Math.min(soft * HARD_FACTOR, available / HARD_SHARE);
+
+        hardMillis = Math.max(MIN_MILLIS, hard);
+        softMillis = Math.max(MIN_MILLIS, Math.min(soft, hardMillis));
+    }
+
+    /**
+     * moves that are not bombs (a royal giant's 64 bomb targets would swamp the count)
+     */
+    private static int quietMoves(GameState state) {
+        MoveList list = new MoveList();
+        MoveGenerator.generate(state, list);
+        int count = 0;
+        for (int i = 0; i < list.size(); i++) {
+            if (Move.kind(list.get(i)) != Move.BOMB) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Called by the search after each completed iteration
+     *
+     * @param move best move of the iteration
+     * @param score its score
+     * @return true if the search should stop and play the move
+     */
+    public synchronized boolean shouldStop(int move, int score) {
+        stableIterations = move == lastMove ? stableIterations + 1 : 0;
+        scoreDropped = lastMove != Move.NONE && score < lastScore - SCORE_DROP;
+        lastMove = move;
+        lastScore = score;
+        return isSpent();
+    }
+
+    /**
+     * check on a ponder hit whether the pondering already used up the time for the move
+     * @return boolean true if the search should stop and play its move now
+     */
+    public synchronized boolean isSpent() {
+        if (pondering || lastMove == Move.NONE) return false;
+        double share = stableIterations >= 4 ? 0.35 : stableIterations >= 2 ? 0.6 : 1.0;
+        if (scoreDropped) share *= 1.5;
+        double budget = Math.min(hardMillis, softMillis * share);
+        return getElapsedMillis() >= budget * START_SHARE;
+    }
+
+    /**
+     * @return long time the search may use for the move, it is stopped once this is up
+     */
+    public synchronized long getHardLimit() {
+        return hardMillis;
+    }
+
+    /**
+     * @return long time a search without iterations (MctsSearch) should take
+     */
+    public synchronized long getSoftLimit() {
+        return softMillis;
+    }
+
+    public long getElapsedMillis() {
+        return (System.nanoTime() - start) / 1000000L;
+    }
+}
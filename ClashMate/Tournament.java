@@ -0,0 +1,321 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless engine-vs-engine match, for checking an engine or rules change without the UI
+ * Plays games between two engines on a pool of worker threads (one game per worker at a
+ * time), then reports wins/draws/losses, the Elo difference with a 95% error bar and a
+ * sequential probability ratio test that can stop the match early.
+ *
+ * Games come in pairs from the same random opening with the colours swapped, so neither
+ * engine gains from a lucky opening. Each player has a clock like GameTimer and loses when it
+ * runs out; a repeated position or MAX_PLIES moves is scored as a draw.
+ *
+ * Settings are key=value arguments, defaulting to the saved GameSettings for the elixir
+ * multiplier and time limit:
+ *     java Tournament games=1000 a=search b=mcts elixir=2 seconds=60 elo0=0 elo1=10
+ *
+ * Engines are "search" (alpha-beta with a TimeManager, like AIPlayer), "search:N" (alpha-beta
+ * to depth N, off the clock) or "mcts" (MctsSearch for the TimeManager's soft limit). Results
+ * are from engine a's side.
+ *
+ * @author Saiful Shaik
+ * @version 2/18/2026
+ */
+public class Tournament
+{
+    private static final int DEFAULT_GAMES = 1000;
+    private static final int RANDOM_PLIES = 8;
+    private static final int MAX_PLIES = 400;
+    private static final int MAX_DEPTH = 32;
+    private static final int TABLE_MEGABYTES = 16;
+    private static final long NO_TIME_LIMIT = 24L * 60 * 60 * 1000;
+
+    // SPRT error rates, and how often to print the standings
+    private static final double ALPHA = 0.05;
+    private static final double BETA = 0.05;
+    private static final int REPORT_EVERY = 20;
+
+    // game results from engine a's side
+    private static final int WIN = 0;
+    private static final int DRAW = 1;
+    private static final int LOSS = 2;
+
+    private final String engineA;
+    private final String engineB;
+    private final int games;
+    private final int elixirMultiplier;
+    private final long clockMillis;
+    private final double elo0;
+    private final double elo1;
+    private final int threads;
+
+    // wins, draws and losses so far, updated under the lock of this object
+    private final int[] results = new int[3];
+    private volatile boolean stopped;
+    private String decision = "none";
+
+    /**
+     * One side of the match: picks a move with the time left on its clock
+     */
+    private static final class Engine
+    {
+        private final int depth;
+        private Search search;
+        private MctsSearch mcts;
+
+        Engine(String spec) {
+            if (spec.equals("mcts")) {
+                mcts = new MctsSearch(1);
+                depth = 0;
+            }
+            else if (spec.equals("search") || spec.startsWith("search:")) {
+                search = new Search(TABLE_MEGABYTES);
+                depth = spec.equals("search") ? 0 : Integer.parseInt(spec.substring(7));
+            }
+            else {
+                throw new IllegalArgumentException("unknown engine: " + spec);
+            }
+        }
+
+        /**
+         * @return true if the engine plays to a fixed depth and ignores its clock
+         */
+        boolean isFixedDepth() {
+            return depth > 0;
+        }
+
+        int bestMove(GameState state, long clockMillis) {
+            if (isFixedDepth()) return search.search(state, depth, NO_TIME_LIMIT);
+            TimeManager time = new TimeManager(clockMillis, state);
+            if (mcts != null) return mcts.search(state, time.getSoftLimit());
+            return search.search(state, MAX_DEPTH, time);
+        }
+
+        void shutdown() {
+            if (mcts != null) mcts.shutdown();
+        }
+    }
+
+    /**
+     * @param engineA engine the results are reported for
+     * @param engineB its opponent
+     * @param games games to play (rounded up to a whole number of pairs)
+     * @param elixirMultiplier GameSettings elixir multiplier
+     * @param clockMillis time on each player's clock per game
+     * @param elo0 SPRT null hypothesis, in Elo
+     * @param elo1 SPRT alternative hypothesis, in Elo
+     * @param threads games played at once
+     */
+    public Tournament(String engineA, String engineB, int games, int elixirMultiplier, long clockMillis,
+                      double elo0, double elo1, int threads) {
+        this.engineA = engineA;
+        this.engineB = engineB;
+        this.games = (games + 1) / 2 * 2;
+        this.elixirMultiplier = elixirMultiplier;
+        this.clockMillis = clockMillis;
+        this.elo0 = elo0;
+        this.elo1 = elo1;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Play the match, stopping early once the SPRT reaches a decision
+     */
+    public void run() {
+        // check the engine names before starting any threads
+        new Engine(engineA).shutdown();
+        new Engine(engineB).shutdown();
+
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        AtomicInteger next = new AtomicInteger();
+        long seed = System.nanoTime();
+        List<Future<?>> running = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            running.add(workers.submit(() -> {
+                Engine a = new Engine(engineA);
+                Engine b = new Engine(engineB);
+                int game;
+                while (!stopped && (game = next.getAndIncrement()) < games) {
+                    // both games of a pair share an opening, a plays white in the first
+                    SplittableRandom opening = new SplittableRandom(seed + game / 2);
+                    boolean aWhite = game % 2 == 0;
+                    int winner = playGame(aWhite ? a : b, aWhite ? b : a, opening);
+                    int result = winner == GameState.DRAW ? DRAW
+                        : (winner == GameState.WHITE_WINS) == aWhite ? WIN : LOSS;
+                    record(result);
+                }
+                a.shutdown();
+                b.shutdown();
+            }));
+        }
+        for (Future<?> future : running) {
+            try {
+                future.get();
+            }
+            catch (Exception e) {
+                System.err.println("Tournament worker failed: " + e);
+            }
+        }
+        workers.shutdown();
+        System.out.println("final: " + standings());
+        System.out.println("SPRT: " + decision);
+    }
+
+    /**
+     * play one game on the clock
+     * @return int GameState.WHITE_WINS, BLACK_WINS or DRAW
+     */
+    private int playGame(Engine white, Engine black, SplittableRandom opening) {
+        GameState state = GameState.standard(elixirMultiplier);
+        MoveList list = new MoveList();
+        long[] clocks = { clockMillis, clockMillis };
+
+        for (int ply = 0; ply < MAX_PLIES; ply++) {
+            if (state.isGameOver()) return state.getResult();
+            if (state.isRepetition()) return GameState.DRAW;
+
+            int side = state.getSideToMove();
+            int move;
+            if (ply < RANDOM_PLIES) {
+                MoveGenerator.generate(state, list);
+                move = list.get(opening.nextInt(list.size()));
+            }
+            else {
+                Engine engine = side == GameState.WHITE ? white : black;
+                long start = System.nanoTime();
+                // the copy keeps the moves so far, so the engine sees the repetitions adjudicated below
+                move = engine.bestMove(new GameState(state), clocks[side]);
+                if (!engine.isFixedDepth()) {
+                    clocks[side] -= (System.nanoTime() - start) / 1000000L;
+                    if (clocks[side] <= 0) return side == GameState.WHITE ? GameState.BLACK_WINS : GameState.WHITE_WINS;
+                }
+            }
+            state.makeMove(move);
+        }
+        return GameState.DRAW;
+    }
+
+    /**
+     * add a game to the standings, print them now and then and check the SPRT
+     */
+    private synchronized void record(int result) {
+        if (stopped) return;
+        results[result]++;
+        int played = results[WIN] + results[DRAW] + results[LOSS];
+        if (played % REPORT_EVERY == 0) System.out.println(standings());
+
+        double llr = logLikelihoodRatio();
+        if (llr >= Math.log((1 - BETA) / ALPHA)) {
+            decision = String.format("H1 accepted (a is at least %.0f Elo stronger) after %d games", elo1, played);
+            stopped = true;
+        }
+        else if (llr <= Math.log(BETA / (1 - ALPHA))) {
+            decision = String.format("H0 accepted (a is not %.0f Elo stronger) after %d games", elo1, played);
+            stopped = true;
+        }
+    }
+
+    // ===== statistics =====
+
+    /**
+     * the standings as one line: games, W/D/L, score, Elo with its 95% interval and the LLR
+     */
+    private synchronized String standings() {
+        int played = results[WIN] + results[DRAW] + results[LOSS];
+        double score = score();
+        double margin = 1.96 * Math.sqrt(variance() / Math.max(1, played));
+        return String.format("%d games  +%d =%d -%d  score %.1f%%  Elo %+.1f [%+.1f, %+.1f]  LLR %.2f (%.2f, %.2f)",
+            played, results[WIN], results[DRAW], results[LOSS], 100 * score,
+            elo(score), elo(score - margin), elo(score + margin),
+            logLikelihoodRatio(), Math.log(BETA / (1 - ALPHA)), Math.log((1 - BETA) / ALPHA));
+    }
+
+    /**
+     * mean points per game for a, a draw counting half
+     */
+    private double score() {
+        int played = results[WIN] + results[DRAW] + results[LOSS];
+        return played == 0 ? 0.5 : (results[WIN] + 0.5 * results[DRAW]) / played;
+    }
+
+    /**
+     * variance of the points a scores in one game
+     */
+    private double variance() {
+        int played = results[WIN] + results[DRAW] + results[LOSS];
+        if (played == 0) return 0;
+        double score = score();
+        return (results[WIN] * (1 - score) * (1 - score)
+            + results[DRAW] * (0.5 - score) * (0.5 - score)
+            + results[LOSS] * score * score) / played;
+    }
+
+    /**
+     * Log-likelihood ratio of elo1 against elo0, using the normal approximation to the
+     * game results (the same one fishtest and cutechess use for trinomial results)
+     */
+    private double logLikelihoodRatio() {
+        int played = results[WIN] + results[DRAW] + results[LOSS];
+        double variance = variance();
+        if (played == 0 || variance == 0) return 0;
+        double s0 = expectedScore(elo0);
+        double s1 = expectedScore(elo1);
+        return played * (s1 - s0) * (2 * score() - s0 - s1) / (2 * variance);
+    }
+
+    private static double expectedScore(double elo) {
+        return 1.0 / (1.0 + Math.pow(10, -elo / 400));
+    }
+
+    /**
+     * Elo difference for a mean score, clamped short of infinity at 0% and 100%
+     */
+    private static double elo(double score) {
+        double clamped = Math.max(1e-3, Math.min(1 - 1e-3, score));
+        return -400 * Math.log10(1 / clamped - 1);
+    }
+
+    public static void main(String[] args) {
+        GameSettings settings = GameSettings.getInstance();
+        String a = "search";
+        String b = "mcts";
+        int games = DEFAULT_GAMES;
+        int elixir = settings.getElixirMultiplier();
+        long clock = settings.getTimeSeconds() * 1000L;
+        double elo0 = 0;
+        double elo1 = 10;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            String key = equals < 0 ? arg : arg.substring(0, equals);
+            String value = equals < 0 ? "" : arg.substring(equals + 1);
+            switch (key) {
+                case "a": a = value; break;
+                case "b": b = value; break;
+                case "games": games = Integer.parseInt(value); break;
+                case "elixir": elixir = Integer.parseInt(value); break;
+                case "minutes": clock = Long.parseLong(value) * 60000L; break;
+                case "seconds": clock = Long.parseLong(value) * 1000L; break;
+                case "elo0": elo0 = Double.parseDouble(value); break;
+                case "elo1": elo1 = Double.parseDouble(value); break;
+                case "threads": threads = Integer.parseInt(value); break;
+                default:
+                    System.out.println("usage: java Tournament [a=engine] [b=engine] [games=N] [elixir=N]"
+                        + " [minutes=N | seconds=N] [elo0=N] [elo1=N] [threads=N]");
+                    System.out.println("engines: search, search:<depth>, mcts");
+                    return;
+            }
+        }
+
+        System.out.println(String.format("%s vs %s, %d games, elixir x%d, %d s per side, SPRT [%.0f, %.0f], %d threads",
+            a, b, games, elixir, clock / 1000, elo0, elo1, threads));
+        new Tournament(a, b, games, elixir, clock, elo0, elo1, threads).run();
+    }
+}
@@ -0,0 +1,183 @@
+import java.util.Arrays;
+
+/**
+ * Transposition table shared by every search thread
+ * The whole table is one long[] allocated up front from a size in megabytes, so probing
+ * and storing never allocate and the table never grows.
+ *
+ * Entries are two longs: the position's Zobrist hash XORed with the data, and the data
+ * itself. Threads read and write without locks; an entry torn by two threads writing at
+ * once no longer XORs back to its hash, so probe treats it as a miss.
+ *
+ * Entries are grouped in buckets of four (64 bytes, one cache line). A position can go in
+ * any slot of its bucket, and when the bucket is full the entry replaced is the one worth
+ * least: shallow entries and entries left over from earlier searches go first. Each search
+ * calls newSearch to move the table on a generation, which is how old entries are aged out.
+ *
+ * Entry data packs the best move, depth, bound type, generation and score (see pack)
+ *
+ * @author Saiful Shaik
+ * @version 2/15/2026
+ */
+public class TranspositionTable
+{
+    // bound types, never 0 so an entry's data is never 0
+    public static final int EXACT = 1;
+    public static final int LOWER = 2;
+    public static final int UPPER = 3;
+
+    public static final int DEFAULT_MEGABYTES = 16;
+
+    // entries per bucket, and longs per entry
+    private static final int BUCKET = 4;
+    private static final int ENTRY_LONGS = 2;
+    private static final int ENTRY_BYTES = ENTRY_LONGS * Long.BYTES;
+
+    private static final int MAX_DEPTH = 127;
+    private static final int GENERATIONS = 64;
+
+    private final long[] table;
+    private final int bucketMask;
+    private volatile int generation;
+
+    /**
+     * Create a table using at most the given memory
+     *
+     * @param megabytes memory budget, rounded down to a power of two number of buckets
+     */
+    public TranspositionTable(int megabytes) {
+        long bytes = Math.max(1, megabytes) * 1024L * 1024L;
+        long buckets = Long.highestOneBit(bytes / (BUCKET * ENTRY_BYTES));
+        // keep the array within Java's int indexing
+        buckets = Math.min(buckets, 1L << 26);
+        table = new long[(int) buckets * BUCKET * ENTRY_LONGS];
+        bucketMask = (int) buckets - 1;
+        generation = 0;
+    }
+
+    /**
+     * Look up a position
+     *
+     * @param key the position's Zobrist hash
+     * @return long the entry data, or 0 if the position is not stored
+     */
+    public long probe(long key) {
+        int base = bucketOf(key);
+        for (int i = base; i < base + BUCKET * ENTRY_LONGS; i += ENTRY_LONGS) {
+            long data = table[i + 1];
+            if ((table[i] ^ data) == key && data != 0) return data;
+        }
+        return 0L;
+    }
+
+    /**
+     * Store a search result for a position
+     * Overwrites the position's own entry if it has one (keeping its move when the new result
+     * has none), otherwise the least valuable entry in the bucket
+     */
+    public void store(long key, int move, int depth, int bound, int score) {
+        int base = bucketOf(key);
+        int gen = generation;
+        int target = base;
+        int worst = Integer.MAX_VALUE;
+
+        for (int i = base; i < base + BUCKET * ENTRY_LONGS; i += ENTRY_LONGS) {
+            long data = table[i + 1];
+            if (data != 0 && (table[i] ^ data) == key) {
+                if (move == Move.NONE) move = move(data);
+                target = i;
+                break;
+            }
+            // empty slots first, then shallow and old entries
+            int value = data == 0 ? Integer.MIN_VALUE : depth(data) - 8 * age(data, gen);
+            if (value < worst) {
+                worst = value;
+                target = i;
+            }
+        }
+
+        long data = pack(move, Math.min(depth, MAX_DEPTH), bound, gen, score);
+        table[target] = key ^ data;
+        table[target + 1] = data;
+    }
+
+    /**
+     * Start a new search, so entries from earlier searches are replaced first
+     * Called once per search, not once per thread
+     */
+    public void newSearch() {
+        generation = (generation + 1) % GENERATIONS;
+    }
+
+    /**
+     * empty the table
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+        generation = 0;
+    }
+
+    /**
+     * Sample how full the table is with entries from the current search
+     *
+     * @return int entries per thousand in use, out of the first thousand slots
+     */
+    public int hashfull() {
+        int used = 0;
+        int sampled = Math.min(1000, table.length / ENTRY_LONGS);
+        for (int i = 0; i < sampled; i++) {
+            long data = table[i * ENTRY_LONGS + 1];
+            if (data != 0 && generation(data) == generation) used++;
+        }
+        return used * 1000 / sampled;
+    }
+
+    /**
+     * @return long the size of the table in bytes
+     */
+    public long sizeInBytes() {
+        return (long) table.length * Long.BYTES;
+    }
+
+    /**
+     * first long of the bucket a key belongs to
+     */
+    private int bucketOf(long key) {
+        return ((int) key & bucketMask) * BUCKET * ENTRY_LONGS;
+    }
+
+    /**
+     * how many searches ago an entry was written
+     */
+    private static int age(long data, int generation) {
+        return (generation - generation(data) + GENERATIONS) % GENERATIONS;
+    }
+
+    // ===== entry data =====
+    // bits 0-19 move, 20-26 depth, 27-28 bound, 29-34 generation, 35-63 score
+
+    private static long pack(int move, int depth, int bound, int generation, int score) {
+        return (move & 0xFFFFFL) | ((long) depth << 20) | ((long) bound << 27)
+            | ((long) generation << 29) | ((long) score << 35);
+    }
+
+    public static int move(long data) {
+        return (int) (data & 0xFFFFF);
+    }
+
+    public static int depth(long data) {
+        return (int) ((data >>> 20) & 0x7F);
+    }
+
+    public static int bound(long data) {
+        return (int) ((data >>> 27) & 3);
+    }
+
+    private static int generation(long data) {
+        return (int) ((data >>> 29) & 0x3F);
+    }
+
+    public static int score(long data) {
+        return (int) (data >> 35);
+    }
+}
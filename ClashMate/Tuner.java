@@ -0,0 +1,348 @@
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Texel-style tuner for the Evaluation weights
+ * Fits every weight (piece values, piece-square tables, mobility, giant safety, bomb threat,
+ * elixir and ability-ready bonuses) so that a sigmoid of the evaluation predicts the result of
+ * the game each position came from. The promotion trade-off is fitted along the way: whether
+ * paying a PromotionMenu cost is worth it comes down to the piece values against the elixir weight.
+ *
+ * Two steps, both run on every core:
+ *     java Tuner generate [games] [file] [depth]
+ *         plays games of the Search against itself and writes one position per line,
+ *         as "result position-text" with the result 1, 0.5 or 0 from white's side
+ *     java Tuner tune [file] [epochs] [rate]
+ *         fits the weights with gradient descent (Adam) and saves them to eval_weights.txt,
+ *         which Evaluation loads at start-up
+ *
+ * The position file is read a batch at a time on every epoch, never held in memory whole,
+ * so it can hold millions of positions. Each batch is split between the threads, which add
+ * up their share of the gradient from Evaluation.features; the weights are then updated once
+ * per batch. The mean loss is printed after each epoch.
+ *
+ * @author Saiful Shaik
+ * @version 2/18/2026
+ */
+public class Tuner
+{
+    private static final String DEFAULT_FILE = "selfplay.txt";
+    private static final int DEFAULT_GAMES = 1000;
+    private static final int DEFAULT_DEPTH = 3;
+    private static final int DEFAULT_EPOCHS = 20;
+    private static final double DEFAULT_RATE = 1.0;
+
+    // self-play: random moves to open with, positions skipped before recording, and a move cap
+    private static final int RANDOM_PLIES = 8;
+    private static final int SKIP_PLIES = 12;
+    private static final int MAX_PLIES = 300;
+    private static final int TABLE_MEGABYTES = 16;
+    private static final long NO_TIME_LIMIT = 24L * 60 * 60 * 1000;
+
+    // positions per gradient step
+    private static final int BATCH = 16384;
+
+    // the sigmoid maps an evaluation of 400 to a 10 to 1 chance of winning
+    private static final double SCALE = Math.log(10) / 400.0;
+
+    // Adam
+    private static final double BETA1 = 0.9;
+    private static final double BETA2 = 0.999;
+    private static final double EPSILON = 1e-8;
+
+    private final int threads;
+    private final ExecutorService workers;
+
+    // weights being fitted, and Adam's running averages of the gradient
+    private final double[] weights;
+    private final double[] moment = new double[Evaluation.WEIGHT_COUNT];
+    private final double[] velocity = new double[Evaluation.WEIGHT_COUNT];
+    private final double rate;
+    private int steps;
+
+    /**
+     * @param threads threads to work on
+     * @param rate learning rate, roughly the most a weight moves per step
+     */
+    public Tuner(int threads, double rate) {
+        this.threads = Math.max(1, threads);
+        this.rate = rate;
+        workers = Executors.newFixedThreadPool(this.threads, runnable -> {
+            Thread thread = new Thread(runnable, "ClashMate tuner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int[] start = Evaluation.getWeights();
+        weights = new double[start.length];
+        for (int i = 0; i < start.length; i++) {
+            weights[i] = start[i];
+        }
+    }
+
+    // ===== self-play =====
+
+    /**
+     * Play games of the Search against itself and append their positions to a file
+     *
+     * @param games number of games
+     * @param fileName file to append to
+     * @param depth search depth per move
+     * @return long positions written
+     */
+    public long generate(int games, String fileName, int depth) throws IOException {
+        long[] written = new long[1];
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileName, true))) {
+            List<Future<?>> running = new ArrayList<>();
+            int[] next = { 0 };
+            for (int t = 0; t < threads; t++) {
+                long seed = System.nanoTime() + t;
+                running.add(workers.submit(() -> {
+                    Search search = new Search(TABLE_MEGABYTES);
+                    SplittableRandom random = new SplittableRandom(seed);
+                    while (true) {
+                        int game;
+                        synchronized (next) {
+                            if (next[0] >= games) return null;
+                            game = next[0]++;
+                        }
+                        List<String> positions = playGame(search, depth, random);
+                        synchronized (writer) {
+                            for (String line : positions) {
+                                writer.write(line);
+                                writer.newLine();
+                            }
+                            written[0] += positions.size();
+                            if ((game + 1) % 10 == 0) {
+                                System.out.println("game " + (game + 1) + "/" + games + ", " + written[0] + " positions");
+                            }
+                        }
+                    }
+                }));
+            }
+            waitFor(running);
+        }
+        return written[0];
+    }
+
+    /**
+     * one self-play game, opening with a few random moves so the games differ
+     * @return List the recorded positions, each with the game's result in front
+     */
+    private static List<String> playGame(Search search, int depth, SplittableRandom random) {
+        GameState state = GameState.standard(1);
+        MoveList list = new MoveList();
+        List<String> positions = new ArrayList<>();
+
+        for (int ply = 0; ply < MAX_PLIES && !state.isGameOver() && !state.isRepetition(); ply++) {
+            if (ply >= SKIP_PLIES) positions.add(state.toText());
+            int move;
+            if (ply < RANDOM_PLIES) {
+                MoveGenerator.generate(state, list);
+                move = list.get(random.nextInt(list.size()));
+            }
+            else {
+                move = search.search(state, depth, NO_TIME_LIMIT);
+            }
+            state.makeMove(move);
+        }
+
+        String result;
+        switch (state.getResult()) {
+            case GameState.WHITE_WINS: result = "1"; break;
+            case GameState.BLACK_WINS: result = "0"; break;
+            default: result = "0.5"; break;
+        }
+        for (int i = 0; i < positions.size(); i++) {
+            positions.set(i, result + " " + positions.get(i));
+        }
+        return positions;
+    }
+
+    // ===== tuning =====
+
+    /**
+     * Run one pass over the position file, updating the weights after every batch
+     *
+     * @param fileName positions written by generate
+     * @return double the mean squared error over the pass
+     */
+    public double epoch(String fileName) throws IOException {
+        double loss = 0;
+        long count = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
+            String[] batch = new String[BATCH];
+            int size;
+            while ((size = readBatch(reader, batch)) > 0) {
+                double[] gradient = new double[weights.length];
+                loss += gradientStep(batch, size, gradient);
+                count += size;
+                update(gradient, size);
+            }
+        }
+        return count == 0 ? 0 : loss / count;
+    }
+
+    /**
+     * fill a batch with the next lines of the file
+     * @return int lines read, 0 at the end of the file
+     */
+    private static int readBatch(BufferedReader reader, String[] batch) throws IOException {
+        int size = 0;
+        String line;
+        while (size < batch.length && (line = reader.readLine()) != null) {
+            if (!line.isBlank()) batch[size++] = line;
+        }
+        return size;
+    }
+
+    /**
+     * split a batch between the threads and add up their gradients
+     * @return double the batch's total loss
+     */
+    private double gradientStep(String[] batch, int size, double[] gradient) {
+        int chunk = (size + threads - 1) / threads;
+        List<Future<double[]>> running = new ArrayList<>();
+        for (int start = 0; start < size; start += chunk) {
+            int from = start;
+            int to = Math.min(size, start + chunk);
+            Callable<double[]> task = () -> partialGradient(batch, from, to);
+            running.add(workers.submit(task));
+        }
+
+        double loss = 0;
+        for (Future<double[]> future : running) {
+            try {
+                double[] partial = future.get();
+                for (int i = 0; i < gradient.length; i++) {
+                    gradient[i] += partial[i];
+                }
+                loss += partial[gradient.length];
+            }
+            catch (Exception e) {
+                throw new IllegalStateException("tuner worker failed", e);
+            }
+        }
+        return loss;
+    }
+
+    /**
+     * gradient of the squared error over part of a batch
+     * @return double[] the gradient, with the total loss in the extra last entry
+     */
+    private double[] partialGradient(String[] batch, int from, int to) {
+        double[] features = new double[weights.length];
+        double[] partial = new double[weights.length + 1];
+        for (int p = from; p < to; p++) {
+            String line = batch[p];
+            int space = line.indexOf(' ');
+            double result = Double.parseDouble(line.substring(0, space));
+            Evaluation.features(GameState.fromText(line.substring(space + 1)), features);
+
+            double eval = 0;
+            for (int i = 0; i < features.length; i++) {
+                eval += weights[i] * features[i];
+            }
+            double predicted = sigmoid(eval);
+            double error = predicted - result;
+            partial[weights.length] += error * error;
+
+            // d(error^2)/d(eval), then through the linear evaluation to each weight
+            double slope = 2 * error * predicted * (1 - predicted) * SCALE;
+            for (int i = 0; i < features.length; i++) {
+                if (features[i] != 0) partial[i] += slope * features[i];
+            }
+        }
+        return partial;
+    }
+
+    /**
+     * one Adam step on the averaged batch gradient
+     */
+    private void update(double[] gradient, int size) {
+        steps++;
+        double correction1 = 1 - Math.pow(BETA1, steps);
+        double correction2 = 1 - Math.pow(BETA2, steps);
+        for (int i = 0; i < weights.length; i++) {
+            double g = gradient[i] / size;
+            moment[i] = BETA1 * moment[i] + (1 - BETA1) * g;
+            velocity[i] = BETA2 * velocity[i] + (1 - BETA2) * g * g;
+            weights[i] -= rate * (moment[i] / correction1) / (Math.sqrt(velocity[i] / correction2) + EPSILON);
+        }
+    }
+
+    private static double sigmoid(double eval) {
+        return 1.0 / (1.0 + Math.exp(-eval * SCALE));
+    }
+
+    /**
+     * @return int[] the fitted weights, rounded for Evaluation
+     */
+    public int[] getWeights() {
+        int[] rounded = new int[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            rounded[i] = (int) Math.round(weights[i]);
+        }
+        return rounded;
+    }
+
+    /**
+     * stop the worker threads for good
+     */
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private static void waitFor(List<Future<?>> running) {
+        for (Future<?> future : running) {
+            try {
+                future.get();
+            }
+            catch (Exception e) {
+                System.err.println("Tuner worker failed: " + e);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        String mode = args.length > 0 ? args[0] : "tune";
+        String fileName = args.length > 2 ? args[2] : DEFAULT_FILE;
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        if (mode.equals("generate")) {
+            int games = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_GAMES;
+            int depth = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_DEPTH;
+            Tuner tuner = new Tuner(cores, DEFAULT_RATE);
+            System.out.println("playing " + games + " games at depth " + depth + " on " + cores + " threads");
+            long positions = tuner.generate(games, fileName, depth);
+            System.out.println(positions + " positions written to " + fileName);
+            tuner.shutdown();
+        }
+        else if (mode.equals("tune")) {
+            fileName = args.length > 1 ? args[1] : DEFAULT_FILE;
+            int epochs = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_EPOCHS;
+            double rate = args.length > 3 ? Double.parseDouble(args[3]) : DEFAULT_RATE;
+            Tuner tuner = new Tuner(cores, rate);
+            System.out.println("tuning " + Evaluation.WEIGHT_COUNT + " weights from " + fileName + " on " + cores + " threads");
+            for (int epoch = 1; epoch <= epochs; epoch++) {
+                long start = System.nanoTime();
+                double loss = tuner.epoch(fileName);
+                System.out.println(String.format("epoch %3d  loss %.6f  %.1f s",
+                    epoch, loss, (System.nanoTime() - start) / 1e9));
+                // save as we go, so stopping early still keeps the progress
+                // the running game's Evaluation keeps its weights, they are only saved
+                Evaluation.saveWeights(tuner.getWeights(), Evaluation.WEIGHTS_FILE);
+            }
+            tuner.shutdown();
+        }
+        else {
+            System.out.println("usage: java Tuner generate [games] [file] [depth]");
+            System.out.println("       java Tuner tune [file] [epochs] [rate]");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing of a GameState
+ * A position's hash is the XOR of one key per piece on its square, one for the side to move,
+ * one for the castling rights, one for the en passant square, one per elixir level and one
+ * per pending bomb (square, owner and turns left). GameState keeps it up to date as the board
+ * and scalars change, so two positions can be compared in O(1).
+ *
+ * The keys come from a fixed seed so hashes stay the same between runs and can be stored
+ * on disk (opening book, game database)
+ *
+ * @author Saiful Shaik
+ * @version 2/12/2026
+ */
+public final class Zobrist
+{
+    private static final long SEED = 0x436C6173684D6174L;
+
+    // bomb timers above this share the last key (only set up positions can have them)
+    public static final int MAX_BOMB_TIMER = 9;
+
+    // [color][type][square]
+    private static final long[][][] PIECE = new long[2][GameState.PIECE_TYPES][GameState.SQUARES];
+    private static final long BLACK_TO_MOVE;
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT = new long[GameState.SQUARES];
+    // [color][elixir]
+    private static final long[][] ELIXIR = new long[2][GameState.MAX_ELIXIR + 1];
+    // [owner][timer][square]
+    private static final long[][][] BOMB = new long[2][MAX_BOMB_TIMER + 1][GameState.SQUARES];
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (long[][] byType : PIECE) {
+            for (long[] bySquare : byType) fill(bySquare, random);
+        }
+        BLACK_TO_MOVE = random.nextLong();
+        fill(CASTLING, random);
+        CASTLING[0] = 0L;
+        fill(EN_PASSANT, random);
+        for (long[] byLevel : ELIXIR) {
+            fill(byLevel, random);
+            byLevel[0] = 0L;
+        }
+        for (long[][] byTimer : BOMB) {
+            for (long[] bySquare : byTimer) fill(bySquare, random);
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    private static void fill(long[] keys, SplittableRandom random) {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+    }
+
+    public static long piece(int color, int type, int sq) {
+        return PIECE[color][type][sq];
+    }
+
+    /**
+     * @return long the key for a side to move (0 for white)
+     */
+    public static long side(int color) {
+        return color == GameState.BLACK ? BLACK_TO_MOVE : 0L;
+    }
+
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    /**
+     * @return long the key for an en passant square, 0 for EMPTY
+     */
+    public static long enPassant(int sq) {
+        return sq == GameState.EMPTY ? 0L : EN_PASSANT[sq];
+    }
+
+    public static long elixir(int color, int amount) {
+        return ELIXIR[color][amount];
+    }
+
+    /**
+     * @return long the key for a pending bomb, 0 once it has gone off
+     */
+    public static long bomb(int sq, int owner, int timer) {
+        if (timer <= 0) return 0L;
+        return BOMB[owner][Math.min(timer, MAX_BOMB_TIMER)][sq];
+    }
+}
@@ -0,0 +1,49 @@
+package clashmate;
+
+import greenfoot.Color;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * JMH benchmarks for Block.highlight and clearHighlight, alternating a light and a dark block
+ * and the colours Piece uses. Run with -prof gc for the allocation per op.
+ *
+ * @author Saiful Shaik
+ * @version 2/19/2026
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HighlightBenchmarks
+{
+    private static final Color[] COLORS = { Color.GREEN, Color.RED, Color.ORANGE };
+
+    private Block light;
+    private Block dark;
+    // overflows on a fast machine within a run, so it is only used through Math.floorMod
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        light = new Block(0, 0, 30, 30);
+        dark = new Block(0, 1, 90, 30);
+    }
+
+    @Benchmark
+    public int highlight() {
+        int i = cursor++;
+        Block block = (i & 1) == 0 ? light : dark;
+        block.highlight(COLORS[Math.floorMod(i, COLORS.length)]);
+        return block.getImage().getWidth();
+    }
+
+    @Benchmark
+    public int clearHighlight() {
+        Block block = (cursor++ & 1) == 0 ? light : dark;
+        block.clearHighlight();
+        return block.getImage().getWidth();
+    }
+}
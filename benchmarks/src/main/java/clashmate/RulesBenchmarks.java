@@ -0,0 +1,135 @@
+package clashmate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * JMH benchmarks for the rules behind move validation, highlighting, bombs and game end checks
+ * Piece.checkIfMoveIsValid, isPathClear, showPossibleMoves, Bomb.explode and
+ * GridWorld.checkIfGameEnd all hand the work to GameState, so these time the GameState calls
+ * they make, on representative midgame positions. Run with -prof gc for the allocation per op.
+ *
+ * @author Saiful Shaik
+ * @version 2/19/2026
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RulesBenchmarks
+{
+    // midgame positions: open centre, castled sides with a bomb pending, crowded with skeletons
+    private static final String[] POSITIONS = {
+        "dn1wgm1d/rr3rrr/2m2n2/3rr3/2R1R3/2N2M2/RR3RRR/D1MWG1ND w KQkq - 4 3 1 -",
+        "3d1dg1/rr1m1rrr/2n1w3/3r4/3RR1N1/2M5/RRW2RRR/1G1D1D2 b - - 8 9 2 d5w2",
+        "d2wg2d/rsr2rsr/1sn1m3/2srr3/3RRS2/2M1NS2/RSR2RRR/D2WG2D w KQkq - 6 6 3 -",
+    };
+
+    // a bomb one turn from going off next to a cluster of enemy pieces
+    private static final String BOMB_POSITION = "d3g2d/rrm1wrr1/2n5/3rr3/8/2N5/RRR2RRR/D3G2D w - - 0 0 1 d5w1";
+
+    private GameState[] states;
+
+    // every (position, piece, square), aligned (position, from, to) for path checks, (position, piece)
+    private int[][] pairs;
+    private int[][] lines;
+    private int[][] pieces;
+    // overflows on a fast machine within a run, so it is only used through Math.floorMod
+    private int cursor;
+
+    private final MoveList list = new MoveList();
+
+    private GameState bombState;
+    private int quietMove;
+
+    private GameState endState;
+    private int victim;
+    private int victimType;
+
+    @Setup
+    public void setUp() {
+        states = new GameState[POSITIONS.length];
+        List<int[]> pairList = new ArrayList<>();
+        List<int[]> lineList = new ArrayList<>();
+        List<int[]> pieceList = new ArrayList<>();
+        for (int p = 0; p < POSITIONS.length; p++) {
+            GameState state = GameState.fromText(POSITIONS[p]);
+            states[p] = state;
+            for (int from = 0; from < GameState.SQUARES; from++) {
+                if (state.isEmpty(from)) continue;
+                pieceList.add(new int[] { p, from });
+                for (int to = 0; to < GameState.SQUARES; to++) {
+                    pairList.add(new int[] { p, from, to });
+                    if (Bitboards.BETWEEN[from][to] != 0) lineList.add(new int[] { p, from, to });
+                }
+            }
+        }
+        pairs = pairList.toArray(new int[0][]);
+        lines = lineList.toArray(new int[0][]);
+        pieces = pieceList.toArray(new int[0][]);
+
+        bombState = GameState.fromText(BOMB_POSITION);
+        MoveGenerator.generate(bombState, list);
+        quietMove = list.get(0);
+
+        endState = GameState.fromText(POSITIONS[0]);
+        victim = Long.numberOfTrailingZeros(endState.getOccupancy(GameState.BLACK));
+        victimType = endState.typeAt(victim);
+    }
+
+    /**
+     * Piece.checkIfMoveIsValid
+     */
+    @Benchmark
+    public boolean isValidMove() {
+        int[] pair = pairs[Math.floorMod(cursor++, pairs.length)];
+        return states[pair[0]].isValidMove(pair[1], pair[2], false);
+    }
+
+    @Benchmark
+    public boolean isPathClear() {
+        int[] line = lines[Math.floorMod(cursor++, lines.length)];
+        return states[line[0]].isPathClear(line[1], line[2]);
+    }
+
+    /**
+     * Piece.showPossibleMoves, which highlights the squares in this bitboard
+     */
+    @Benchmark
+    public long getValidTargets() {
+        int[] piece = pieces[Math.floorMod(cursor++, pieces.length)];
+        return states[piece[0]].getValidTargets(piece[1], false);
+    }
+
+    @Benchmark
+    public int generateMoves() {
+        MoveGenerator.generate(states[Math.floorMod(cursor++, states.length)], list);
+        return list.size();
+    }
+
+    /**
+     * Bomb.explode: the blast is worked out by GameState when the turn the fuse runs out ends
+     */
+    @Benchmark
+    public long bombExplosion() {
+        bombState.makeMove(quietMove);
+        long occupied = bombState.getOccupied();
+        bombState.unmakeMove();
+        return occupied;
+    }
+
+    /**
+     * GridWorld.checkIfGameEnd: capturing a piece re-runs the win/draw check
+     */
+    @Benchmark
+    public int captureAndGameEnd() {
+        endState.remove(victim);
+        int result = endState.getResult();
+        endState.put(victim, victimType, GameState.BLACK);
+        return result;
+    }
+}